@@ -0,0 +1,34 @@
+package com.desafio.loja.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ponto de entrada dos benchmarks.
+ *
+ * <p>
+ * Aceita os mesmos argumentos do {@code org.openjdk.jmh.Main} e sempre liga o
+ * {@link GCProfiler}, para que toda execução reporte taxa de alocação
+ * ({@code gc.alloc.rate.norm} = bytes alocados por operação) e contagem de
+ * coletas. Regressões de alocação ficam visíveis sem flags extras.
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class);
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.desafio.loja.benchmark;
+
+import com.desafio.loja.dto.OrderResponseDTO;
+import com.desafio.loja.dto.ProductResponseDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON x CBOR x Smile para as respostas de maior volume: página de
+ * {@link ProductResponseDTO} ({@code GET /api/products}) e lista de
+ * {@link OrderResponseDTO} ({@code GET /cart/orders}).
+ *
+ * <p>
+ * Cada formato usa a configuração dos conversores da API
+ * ({@code BinaryFormatsConfig}): JSON com datas ISO em texto; CBOR e Smile
+ * com datas numéricas. {@code decode*} mede o lado do consumidor (bytes →
+ * DTOs). O tamanho de cada payload é impresso no setup.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    private static final TypeReference<List<OrderResponseDTO>> ORDER_LIST = new TypeReference<>() {
+    };
+
+    @Param({ "json", "cbor", "smile" })
+    String format;
+
+    @Param({ "100" })
+    int size;
+
+    private ObjectMapper mapper;
+    private Page<ProductResponseDTO> productPage;
+    private List<OrderResponseDTO> orders;
+    private byte[] productPageBytes;
+    private byte[] ordersBytes;
+
+    /**
+     * Corpo de {@code Page} só com o que o consumidor lê.
+     */
+    public record ProductPage(List<ProductResponseDTO> content, long totalElements, int totalPages) {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        productPage = new PageImpl<>(Fixtures.productDTOs(size, false), PageRequest.of(0, size), size * 10L);
+        orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(OrderResponseDTO.fromEntity(Fixtures.order(3)));
+        }
+        productPageBytes = mapper.writeValueAsBytes(productPage);
+        ordersBytes = mapper.writeValueAsBytes(orders);
+        System.out.printf("%n[%s] página de %d produtos: %d bytes; %d pedidos: %d bytes%n",
+                format, size, productPageBytes.length, size, ordersBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeProductPage() throws IOException {
+        return mapper.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public ProductPage decodeProductPage() throws IOException {
+        return mapper.readValue(productPageBytes, ProductPage.class);
+    }
+
+    @Benchmark
+    public byte[] encodeOrders() throws IOException {
+        return mapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public List<OrderResponseDTO> decodeOrders() throws IOException {
+        return mapper.readValue(ordersBytes, ORDER_LIST);
+    }
+
+    static ObjectMapper mapper(String format) {
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Formato desconhecido: " + format);
+        };
+        // Mesma configuração relevante do ObjectMapper do Spring Boot
+        return new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, !"json".equals(format))
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
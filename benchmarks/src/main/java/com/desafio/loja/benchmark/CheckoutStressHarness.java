@@ -0,0 +1,285 @@
+package com.desafio.loja.benchmark;
+
+import com.desafio.loja.LojaApplication;
+import com.desafio.loja.dto.CartItemDTO;
+import com.desafio.loja.exception.BusinessException;
+import com.desafio.loja.model.Category;
+import com.desafio.loja.model.Order;
+import com.desafio.loja.model.OrderItem;
+import com.desafio.loja.model.OrderStatus;
+import com.desafio.loja.model.Product;
+import com.desafio.loja.repository.CategoryRepository;
+import com.desafio.loja.repository.OrderRepository;
+import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.service.CheckoutOutcome;
+import com.desafio.loja.service.OrderService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga concorrente do checkout com verificação de overselling.
+ *
+ * <p>
+ * Sobe a aplicação sem servidor web, cadastra poucos produtos "quentes" e
+ * dispara milhares de checkouts e cancelamentos simultâneos sobre eles. Ao
+ * final verifica os invariantes de estoque:
+ * </p>
+ * <ul>
+ * <li>nenhum produto com estoque negativo (overselling)</li>
+ * <li>conservação: estoque atual + quantidade vendida em pedidos
+ * {@code CONFIRMED} = estoque inicial</li>
+ * </ul>
+ *
+ * <p>
+ * Reporta vazão e percentis de latência por operação e termina com código 1
+ * se algum invariante for violado.
+ * </p>
+ *
+ * <p>
+ * <b>Banco:</b> H2 em memória (modo PostgreSQL) por padrão; para um
+ * PostgreSQL local use {@code -Dstress.jdbcUrl=jdbc:postgresql://...}
+ * (com {@code -Dstress.username}/{@code -Dstress.password}).
+ * </p>
+ *
+ * <p>
+ * <b>Parâmetros</b> ({@code -Dstress.*}): {@code threads} (32),
+ * {@code operations} (5000), {@code products} (5), {@code initialStock}
+ * (500), {@code cancelRatio} (0.2).
+ * </p>
+ */
+public final class CheckoutStressHarness {
+
+    private final int threads = Integer.getInteger("stress.threads", 32);
+    private final int operations = Integer.getInteger("stress.operations", 5000);
+    private final int productCount = Integer.getInteger("stress.products", 5);
+    private final int initialStock = Integer.getInteger("stress.initialStock", 500);
+    private final double cancelRatio = Double.parseDouble(System.getProperty("stress.cancelRatio", "0.2"));
+
+    private final OrderService orderService;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderRepository orderRepository;
+
+    private final ConcurrentLinkedQueue<Long> confirmedOrders = new ConcurrentLinkedQueue<>();
+    private final Map<String, AtomicInteger> outcomes = new HashMap<>();
+    private final long[] checkoutLatencies;
+    private final long[] cancelLatencies;
+    private final AtomicInteger checkoutCount = new AtomicInteger();
+    private final AtomicInteger cancelCount = new AtomicInteger();
+
+    private CheckoutStressHarness(ConfigurableApplicationContext context) {
+        this.orderService = context.getBean(OrderService.class);
+        this.productRepository = context.getBean(ProductRepository.class);
+        this.categoryRepository = context.getBean(CategoryRepository.class);
+        this.orderRepository = context.getBean(OrderRepository.class);
+        this.checkoutLatencies = new long[operations];
+        this.cancelLatencies = new long[operations];
+        for (String outcome : List.of("confirmed", "insufficient_stock", "cancelled", "already_cancelled", "error")) {
+            outcomes.put(outcome, new AtomicInteger());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String jdbcUrl = System.getProperty("stress.jdbcUrl",
+                "jdbc:h2:mem:stress;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        boolean h2 = jdbcUrl.startsWith("jdbc:h2:");
+
+        // Propriedades de sistema têm precedência sobre o application.properties da aplicação
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", System.getProperty("stress.username", h2 ? "sa" : "postgres"));
+        properties.put("spring.datasource.password", System.getProperty("stress.password", h2 ? "" : "postgres"));
+        properties.put("spring.datasource.driver-class-name", h2 ? "org.h2.Driver" : "org.postgresql.Driver");
+        properties.put("spring.jpa.properties.hibernate.dialect",
+                h2 ? "org.hibernate.dialect.H2Dialect" : "org.hibernate.dialect.PostgreSQLDialect");
+        // PostgreSQL: schema pelas migrações do Flyway; H2: criado pelo Hibernate
+        properties.put("spring.flyway.enabled", !h2);
+        properties.put("spring.jpa.hibernate.ddl-auto", System.getProperty("stress.ddlAuto", h2 ? "update" : "validate"));
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.sql.init.mode", "never");
+        properties.put("spring.datasource.hikari.maximum-pool-size", 16);
+        properties.put("logging.level.com.desafio.loja", "ERROR");
+        properties.put("logging.level.org.hibernate", "ERROR");
+
+        properties.forEach((key, value) -> System.setProperty(key, String.valueOf(value)));
+
+        int exitCode;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LojaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args)) {
+            exitCode = new CheckoutStressHarness(context).run();
+        }
+        System.exit(exitCode);
+    }
+
+    private int run() throws InterruptedException {
+        List<Long> productIds = seedProducts();
+
+        System.out.printf("%nStress: %d threads, %d operações, %d produtos x %d unidades, %.0f%% cancelamentos%n",
+                threads, operations, productCount, initialStock, cancelRatio * 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(operations);
+
+        for (int i = 0; i < operations; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    if (random.nextDouble() < cancelRatio && !confirmedOrders.isEmpty()) {
+                        cancelRandomOrder();
+                    } else {
+                        checkoutRandomCart(productIds, random);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - began;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        report(elapsed);
+        return verify(productIds) ? 0 : 1;
+    }
+
+    private List<Long> seedProducts() {
+        Category category = categoryRepository.findByName("Stress")
+                .orElseGet(() -> categoryRepository.save(new Category(null, "Stress")));
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            Product product = new Product();
+            product.setName("Stress " + i + " - " + System.nanoTime());
+            product.setPrice(new BigDecimal("99.90"));
+            product.setStock(initialStock);
+            product.setCategory(category);
+            products.add(product);
+        }
+        return productRepository.saveAll(products).stream().map(Product::getId).toList();
+    }
+
+    private void checkoutRandomCart(List<Long> productIds, ThreadLocalRandom random) {
+        int lines = 1 + random.nextInt(3);
+        List<CartItemDTO> cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            cart.add(new CartItemDTO(productIds.get(random.nextInt(productIds.size())), 1 + random.nextInt(3)));
+        }
+
+        long began = System.nanoTime();
+        try {
+            if (orderService.checkout(cart) instanceof CheckoutOutcome.Confirmed confirmed) {
+                confirmedOrders.add(confirmed.order().getId());
+                outcomes.get("confirmed").incrementAndGet();
+            } else {
+                outcomes.get("insufficient_stock").incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            outcomes.get("error").incrementAndGet();
+            System.err.println("Erro no checkout: " + e);
+        } finally {
+            checkoutLatencies[checkoutCount.getAndIncrement()] = System.nanoTime() - began;
+        }
+    }
+
+    private void cancelRandomOrder() {
+        // Sem remover da fila: cancelamentos repetidos do mesmo pedido também são exercitados
+        Long[] candidates = confirmedOrders.toArray(Long[]::new);
+        if (candidates.length == 0) {
+            return;
+        }
+        Long orderId = candidates[ThreadLocalRandom.current().nextInt(candidates.length)];
+
+        long began = System.nanoTime();
+        try {
+            orderService.cancelOrder(orderId);
+            outcomes.get("cancelled").incrementAndGet();
+        } catch (BusinessException e) {
+            outcomes.get("already_cancelled").incrementAndGet();
+        } catch (RuntimeException e) {
+            outcomes.get("error").incrementAndGet();
+            System.err.println("Erro no cancelamento: " + e);
+        } finally {
+            cancelLatencies[cancelCount.getAndIncrement()] = System.nanoTime() - began;
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nConcluído em %.2fs - vazão: %.0f ops/s%n", seconds, operations / seconds);
+        System.out.println("Resultados: " + outcomes);
+        printPercentiles("checkout", checkoutLatencies, checkoutCount.get());
+        printPercentiles("cancel", cancelLatencies, cancelCount.get());
+    }
+
+    private static void printPercentiles(String label, long[] latencies, int count) {
+        if (count == 0) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.printf("%-9s n=%-6d p50=%6.2fms p95=%6.2fms p99=%6.2fms max=%6.2fms%n", label, count,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted[count - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Confere os invariantes de estoque produto a produto.
+     */
+    private boolean verify(List<Long> productIds) {
+        Map<Long, AtomicLong> sold = new HashMap<>();
+        productIds.forEach(id -> sold.put(id, new AtomicLong()));
+        for (Order order : orderRepository.findByStatus(OrderStatus.CONFIRMED)) {
+            for (OrderItem item : order.getItems()) {
+                AtomicLong total = sold.get(item.getProduct().getId());
+                if (total != null) {
+                    total.addAndGet(item.getQuantity());
+                }
+            }
+        }
+
+        boolean ok = true;
+        System.out.println();
+        for (Long id : productIds) {
+            int stock = productRepository.findById(id).orElseThrow().getStock();
+            long soldQuantity = sold.get(id).get();
+            boolean oversold = stock < 0;
+            boolean conserved = stock + soldQuantity == initialStock;
+            ok &= !oversold && conserved;
+
+            System.out.printf("%s produto %d: estoque=%d vendido=%d estoque+vendido=%d (esperado %d)%n",
+                    !oversold && conserved ? "OK  " : "FAIL", id, stock, soldQuantity, stock + soldQuantity,
+                    initialStock);
+        }
+        System.out.println(ok ? "\nInvariantes de estoque preservados" : "\nVIOLAÇÃO: estoque inconsistente");
+        return ok;
+    }
+}
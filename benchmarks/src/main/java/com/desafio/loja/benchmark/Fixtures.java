@@ -0,0 +1,91 @@
+package com.desafio.loja.benchmark;
+
+import com.desafio.loja.dto.ProductResponseDTO;
+import com.desafio.loja.model.Category;
+import com.desafio.loja.model.Order;
+import com.desafio.loja.model.OrderItem;
+import com.desafio.loja.model.OrderStatus;
+import com.desafio.loja.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Massa de dados determinística para os benchmarks.
+ *
+ * <p>
+ * Usa semente fixa para que execuções diferentes meçam exatamente os mesmos
+ * valores (preços com 2 casas decimais, como no banco).
+ * </p>
+ */
+final class Fixtures {
+
+    private static final Category[] CATEGORIES = {
+            new Category(1, "Automotiva (Carros)"), new Category(2, "Motos"),
+            new Category(3, "Pesados (Caminhões/Ônibus)"), new Category(4, "Náutica / Boats"),
+            new Category(5, "Estacionária / Solar / Nobreak")
+    };
+
+    private Fixtures() {
+    }
+
+    static List<Product> products(int count, boolean withImages) {
+        Random random = new Random(42);
+        String image = withImages ? fakeImage(random, 48 * 1024) : null;
+
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName("Moura M" + (40 + i % 200) + "GD - " + (40 + i % 200) + "Ah EFB");
+            product.setPrice(BigDecimal.valueOf(10_000 + random.nextInt(200_000), 2));
+            product.setStock(random.nextInt(100));
+            product.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            product.setImage(image);
+            products.add(product);
+        }
+        return products;
+    }
+
+    static List<ProductResponseDTO> productDTOs(int count, boolean withImages) {
+        return products(count, withImages).stream()
+                .map(ProductResponseDTO::fromEntity)
+                .toList();
+    }
+
+    static List<OrderItem> orderItems(List<Product> products, int lines) {
+        Random random = new Random(7);
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(i % products.size());
+            int quantity = 1 + random.nextInt(20);
+
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.applyPricing(product.getPrice(), quantity);
+            items.add(item);
+        }
+        return items;
+    }
+
+    static Order order(int lines) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setCreatedAt(LocalDateTime.of(2026, 1, 16, 20, 24));
+        order.setStatus(OrderStatus.CONFIRMED);
+        for (OrderItem item : orderItems(products(Math.min(lines, 500), false), lines)) {
+            order.addItem(item);
+        }
+        return order;
+    }
+
+    private static String fakeImage(Random random, int bytes) {
+        byte[] data = new byte[bytes];
+        random.nextBytes(data);
+        return "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(data);
+    }
+}
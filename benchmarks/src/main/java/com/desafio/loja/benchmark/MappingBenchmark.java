@@ -0,0 +1,78 @@
+package com.desafio.loja.benchmark;
+
+import com.desafio.loja.dto.OrderResponseDTO;
+import com.desafio.loja.dto.ProductResponseDTO;
+import com.desafio.loja.model.Order;
+import com.desafio.loja.model.OrderItem;
+import com.desafio.loja.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade → DTO e cálculo de subtotal.
+ *
+ * <ul>
+ * <li>{@code orderToDto}: {@link OrderResponseDTO#fromEntity(Order)}</li>
+ * <li>{@code productsToDto}: {@link ProductResponseDTO#fromEntity(Product)}
+ * sobre uma página de produtos</li>
+ * <li>{@code calculateSubtotal}: {@link OrderItem#calculateSubtotal()} para
+ * todas as linhas (aritmética {@link BigDecimal})</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int size;
+
+    private Order order;
+    private List<Product> products;
+    private List<OrderItem> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        order = Fixtures.order(size);
+        products = Fixtures.products(size, false);
+        items = Fixtures.orderItems(products, size);
+    }
+
+    @Benchmark
+    public OrderResponseDTO orderToDto() {
+        return OrderResponseDTO.fromEntity(order);
+    }
+
+    @Benchmark
+    public void productsToDto(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(ProductResponseDTO.fromEntity(product));
+        }
+    }
+
+    @Benchmark
+    public void calculateSubtotal(Blackhole blackhole) {
+        for (OrderItem item : items) {
+            item.calculateSubtotal();
+            blackhole.consume(item.getSubtotal());
+        }
+    }
+}
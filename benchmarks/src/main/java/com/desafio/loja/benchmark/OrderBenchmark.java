@@ -0,0 +1,65 @@
+package com.desafio.loja.benchmark;
+
+import com.desafio.loja.model.Order;
+import com.desafio.loja.model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem de pedidos grandes: {@link Order#addItem(OrderItem)} e
+ * {@link Order#recalculateTotal()}.
+ *
+ * <p>
+ * {@code buildOrder} reproduz o laço do checkout (um {@code addItem} por
+ * linha); {@code recalculateTotal} mede a soma isolada sobre um pedido pronto.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int lines;
+
+    private List<OrderItem> items;
+    private Order builtOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = Fixtures.orderItems(Fixtures.products(Math.min(lines, 500), false), lines);
+        builtOrder = Fixtures.order(lines);
+    }
+
+    @Benchmark
+    public BigDecimal buildOrder() {
+        Order order = new Order();
+        for (OrderItem item : items) {
+            order.addItem(item);
+        }
+        return order.getTotal();
+    }
+
+    @Benchmark
+    public BigDecimal recalculateTotal() {
+        builtOrder.recalculateTotal();
+        return builtOrder.getTotal();
+    }
+}
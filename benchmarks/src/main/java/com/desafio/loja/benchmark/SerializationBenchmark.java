@@ -0,0 +1,73 @@
+package com.desafio.loja.benchmark;
+
+import com.desafio.loja.dto.ProductResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON (Jackson) das respostas de produtos.
+ *
+ * <p>
+ * {@code withImages} controla se os produtos carregam a imagem em Base64
+ * (~64 KB cada), que domina o tamanho da resposta de {@code /api/products/all}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "10", "100" })
+    int pageSize;
+
+    @Param({ "false", "true" })
+    boolean withImages;
+
+    private ObjectMapper mapper;
+    private Page<ProductResponseDTO> page;
+    private List<ProductResponseDTO> catalog;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Mesma configuração relevante do ObjectMapper do Spring Boot
+        mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        catalog = Fixtures.productDTOs(pageSize, withImages);
+        page = new PageImpl<>(catalog, PageRequest.of(0, pageSize), pageSize * 10L);
+    }
+
+    @Benchmark
+    public byte[] productPage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] productList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(catalog);
+    }
+}
@@ -6,6 +6,7 @@ import api from './api';
 const CartService = {
     /**
      * Realiza o checkout do carrinho.
+     * Rejeição (409) rejeita a Promise com todas as linhas indisponíveis em error.lines.
      * @param {Array} items - Lista de itens [{productId, quantity}]
      */
     checkout: async (items) => {
@@ -13,6 +14,15 @@ const CartService = {
         return response.data;
     },
 
+    /**
+     * Cota o carrinho sem finalizar: disponibilidade e preço atual por linha.
+     * @param {Array} items - Lista de itens [{productId, quantity}]
+     */
+    quote: async (items) => {
+        const response = await api.post('/cart/quote', { items });
+        return response.data;
+    },
+
     /**
      * Busca todos os pedidos.
      */
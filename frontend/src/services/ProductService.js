@@ -7,6 +7,7 @@ import api from './api';
  * - GET /products (paginado) - retorna Page<Product>
  * - GET /products/all - retorna List<Product> (sem paginação)
  * - GET /products/search (paginado)
+ * - GET /products?ids=1,2,3 / POST /products/batch - vários produtos por ID
  */
 const ProductService = {
     /**
@@ -32,6 +33,44 @@ const ProductService = {
         return response.data;
     },
 
+    /**
+     * Busca vários produtos por ID em uma requisição (carrinho, recibo).
+     * Listas longas vão no corpo (POST /products/batch) para não estourar a URL.
+     * @param {Array<number>} ids - IDs dos produtos
+     * @returns {Promise<{products: Array, missingIds: Array<number>}>}
+     */
+    getProductsByIds: async (ids) => {
+        const response = ids.length > 100
+            ? await api.post('/products/batch', { ids })
+            : await api.get('/products', { params: { ids: ids.join(',') } });
+        return response.data;
+    },
+
+    /**
+     * Contagem de produtos por categoria para os filtros da vitrine.
+     * @returns {Promise<Array<{id: number, name: string, products: number, inStock: number}>>}
+     */
+    getCategoryFacets: async () => {
+        const response = await api.get('/products/facets');
+        return response.data;
+    },
+
+    /**
+     * Filtra produtos no servidor (categoria, preço, estoque, texto).
+     * @param {{categoryId?: Array<number>, minPrice?: number, maxPrice?: number, inStock?: boolean, q?: string}} filters
+     * @param {number} page - Número da página (começa em 0)
+     * @param {number} size - Quantidade de itens por página
+     * @param {string} sort - 'name,asc' | 'price,desc' ...
+     */
+    filterProducts: async (filters = {}, page = 0, size = 20, sort = 'name,asc') => {
+        const response = await api.get('/products/filter', {
+            params: { ...filters, page, size, sort },
+            // categoryId=1&categoryId=2 (formato esperado pelo Spring)
+            paramsSerializer: { indexes: null }
+        });
+        return response.data;
+    },
+
     /**
      * Busca um produto por ID.
      */
@@ -57,6 +57,9 @@ api.interceptors.response.use(
          *   path: "/cart/checkout",
          *   validationErrors: ["Campo 'price': deve ser maior que zero"]
          * }
+         *
+         * Checkout rejeitado (409, CheckoutRejectionDTO) traz também "lines":
+         * [{ productId, productName, requested, available, status }]
          */
         const data = error.response?.data;
 
@@ -66,6 +69,9 @@ api.interceptors.response.use(
         // Lista de erros de validação (se houver)
         const validationErrors = data?.validationErrors || [];
 
+        // Linhas indisponíveis de um checkout rejeitado (todas de uma vez)
+        const lines = data?.lines || [];
+
         // Status HTTP
         const status = error.response?.status;
 
@@ -73,6 +79,7 @@ api.interceptors.response.use(
         return Promise.reject({
             message,
             validationErrors,
+            lines,
             status,
             // Mantém erro original para debug se necessário
             originalError: error,
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# =============================================
+# BUILD DA SUBIDA RÁPIDA (AOT + CDS)
+# =============================================
+# 1. mvn -Pfast-startup package: jar com o código AOT do contexto
+# 2. Extrai o jar em target/fast-startup (CDS não funciona com os jars
+#    aninhados do jar executável nem com diretórios no classpath)
+# 3. Execução de treino (sobe o contexto e sai em seguida) gravando as
+#    classes carregadas no arquivo CDS target/fast-startup/loja.jsa
+#
+# A execução de treino conecta no banco (Flyway/Hibernate na subida), então
+# passe a mesma configuração de banco da aplicação:
+#   ./scripts/build-fast-startup.sh [--spring.datasource.url=... ...]
+#
+# O arquivo CDS só vale para a mesma JVM e o mesmo classpath: gere no
+# build da imagem, não na máquina de desenvolvimento.
+# =============================================
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+OUT=target/fast-startup
+
+mvn -B -q -Pfast-startup package -DskipTests
+
+rm -rf "$OUT"
+mkdir -p "$OUT/app"
+(cd "$OUT/app" && jar -xf ../../loja-1.0.0-exec.jar)
+jar -cf "$OUT/loja.jar" -C "$OUT/app/BOOT-INF/classes" .
+
+# Classpath explícito e em ordem fixa: o CDS confere o classpath na subida
+CLASSPATH="loja.jar"
+while IFS= read -r lib; do
+    CLASSPATH="$CLASSPATH:app/BOOT-INF/lib/$lib"
+done < <(ls "$OUT/app/BOOT-INF/lib" | sort)
+echo "$CLASSPATH" > "$OUT/classpath.txt"
+
+cd "$OUT"
+java -XX:ArchiveClassesAtExit=loja.jsa \
+    -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh \
+    -cp "$CLASSPATH" com.desafio.loja.LojaApplication \
+    --spring.profiles.active=prod,fast-startup "$@" > training.log 2>&1 \
+    || { echo "❌ Execução de treino falhou (veja $OUT/training.log)"; exit 1; }
+
+echo "✅ Arquivo CDS: $OUT/loja.jsa ($(du -h loja.jsa | cut -f1))"
+echo "Para subir (a partir de $OUT):"
+echo "  java -XX:SharedArchiveFile=loja.jsa -Dspring.aot.enabled=true -cp \"\$(cat classpath.txt)\" \\"
+echo "       com.desafio.loja.LojaApplication --spring.profiles.active=prod,fast-startup"
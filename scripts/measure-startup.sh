@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# =============================================
+# TEMPO ATÉ PRONTO (time-to-ready)
+# =============================================
+# Sobe a aplicação com o comando informado e mede o tempo, a partir do
+# início do processo, até /actuator/health responder 200. Repete N vezes
+# (RUNS, padrão 3) e encerra o processo a cada rodada.
+#
+# Uso:
+#   ./scripts/measure-startup.sh java -jar target/loja-1.0.0-exec.jar
+#   RUNS=5 ./scripts/measure-startup.sh java -XX:SharedArchiveFile=loja.jsa ...
+# =============================================
+set -uo pipefail
+
+HEALTH_URL="${HEALTH_URL:-http://localhost:8080/actuator/health}"
+RUNS="${RUNS:-3}"
+LOG=$(mktemp)
+
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    "$@" > "$LOG" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$HEALTH_URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "❌ A aplicação terminou antes de ficar pronta:"; tail -20 "$LOG"; exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+    echo "Rodada $run: pronto em $(( (end - start) / 1000000 )) ms"
+    kill "$pid"; wait "$pid" 2>/dev/null
+done
+rm -f "$LOG"
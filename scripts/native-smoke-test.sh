@@ -0,0 +1,100 @@
+#!/usr/bin/env bash
+# =============================================
+# SMOKE TEST DO EXECUTÁVEL NATIVO
+# =============================================
+# Sobe o binário gerado por "mvn -Pnative package" contra um PostgreSQL
+# local, mede o tempo até pronto e a memória residente (RSS), e exercita
+# os caminhos que dependem dos hints de config/NativeHintsConfig:
+# entidades e lazy loading (produto com categoria, carrinho, pedido),
+# projeções (facetas, filtro), DTOs aninhados (cotação) e o SpringDoc.
+# Termina com código 1 se a aplicação não subir ou algum passo falhar.
+#
+# Uso:
+#   mvn -Pnative package
+#   ./scripts/native-smoke-test.sh [target/loja]
+#
+# Banco (padrão: jdbc:postgresql://localhost:5432/loja, postgres/postgres):
+#   DB_URL=... DB_USER=... DB_PASSWORD=... ./scripts/native-smoke-test.sh
+# Também aceita um comando JVM para comparar, ex:
+#   ./scripts/native-smoke-test.sh java -jar target/loja-1.0.0-exec.jar
+# =============================================
+set -uo pipefail
+
+if [[ $# -eq 0 ]]; then
+    set -- target/loja
+fi
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+DB_URL="${DB_URL:-jdbc:postgresql://localhost:5432/loja}"
+DB_USER="${DB_USER:-postgres}"
+DB_PASSWORD="${DB_PASSWORD-postgres}"
+LOG=$(mktemp)
+BODY=$(mktemp)
+FAILURES=0
+
+start=$(date +%s%N)
+"$@" --spring.profiles.active=prod \
+    --spring.datasource.url="$DB_URL" \
+    --spring.datasource.username="$DB_USER" \
+    --spring.datasource.password="$DB_PASSWORD" > "$LOG" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2>/dev/null; wait "$pid" 2>/dev/null; rm -f "$LOG" "$BODY"' EXIT
+
+until curl -sf -o /dev/null "$BASE_URL/actuator/health"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "❌ A aplicação terminou antes de ficar pronta:"; tail -30 "$LOG"; exit 1
+    fi
+    sleep 0.05
+done
+end=$(date +%s%N)
+echo "Pronto em $(( (end - start) / 1000000 )) ms (RSS $(awk '/VmRSS/ {print $2, $3}' "/proc/$pid/status"))"
+
+# check MÉTODO CAMINHO STATUS_ESPERADO [CORPO]: corpo da resposta fica em $BODY
+check() {
+    local method="$1" path="$2" expected="$3" body="${4:-}"
+    local args=(-s -o "$BODY" -w '%{http_code}' -X "$method")
+    if [[ -n "$body" ]]; then
+        args+=(-H 'Content-Type: application/json' -d "$body")
+    fi
+    local status
+    status=$(curl "${args[@]}" "$BASE_URL$path")
+    if [[ "$status" == "$expected" ]]; then
+        echo "✅ $method $path -> HTTP $status"
+    else
+        echo "❌ $method $path -> HTTP $status (esperado $expected): $(head -c 300 "$BODY")"
+        FAILURES=$((FAILURES + 1))
+    fi
+}
+
+json_field() {
+    grep -o "\"$1\":[^,}]*" "$BODY" | head -1 | cut -d: -f2 | tr -d '" '
+}
+
+check POST "/api/products" 201 \
+    "{\"name\":\"Smoke nativo $(date +%s%N)\",\"category\":\"Smoke\",\"price\":10.50,\"stock\":5}"
+PRODUCT_ID=$(json_field id)
+CATEGORY_ID=$(json_field categoryId)
+
+check GET  "/api/products/$PRODUCT_ID" 200
+check GET  "/api/products?page=0&size=5" 200
+check POST "/api/products/batch" 200 "{\"ids\":[$PRODUCT_ID]}"
+check GET  "/api/products/facets" 200
+check GET  "/api/products/filter?categoryId=$CATEGORY_ID&inStock=true&sort=price,desc" 200
+check POST "/cart/quote" 200 "{\"items\":[{\"productId\":$PRODUCT_ID,\"quantity\":2}]}"
+
+CART="/cart/carts/$(cat /proc/sys/kernel/random/uuid)"
+check PUT  "$CART/items" 200 "{\"productId\":$PRODUCT_ID,\"quantity\":2}"
+check GET  "$CART" 200
+check POST "$CART/checkout" 201
+ORDER_ID=$(json_field id)
+check GET  "/cart/orders/$ORDER_ID" 200
+
+check GET  "/api-docs" 200
+check GET  "/swagger-ui/index.html" 200
+check GET  "/actuator/prometheus" 200
+
+if [[ $FAILURES -gt 0 ]]; then
+    echo "$FAILURES passo(s) com erro; últimas linhas do log:"
+    tail -30 "$LOG"
+    exit 1
+fi
+echo "Smoke test OK"
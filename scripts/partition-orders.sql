@@ -0,0 +1,101 @@
+-- =============================================
+-- MIGRAÇÃO: orders/order_items -> tabelas particionadas por mês
+-- =============================================
+-- Para bancos criados antes do particionamento e do Flyway (tabelas comuns,
+-- criadas pelo antigo schema.sql ou pelo ddl-auto do Hibernate). Rodar com a
+-- aplicação parada, em uma única transação, antes da primeira subida com
+-- Flyway (que então marca a V1 como aplicada e cria os índices da V2):
+--
+--   psql -v ON_ERROR_STOP=1 -1 -d loja_db -f scripts/partition-orders.sql
+--
+-- Cria as partições desde o pedido mais antigo até 3 meses à frente, copia
+-- os dados (order_items.created_at recebe a data do pedido), reposiciona as
+-- sequências e remove as tabelas antigas.
+
+ALTER TABLE order_items RENAME TO order_items_legacy;
+ALTER TABLE orders RENAME TO orders_legacy;
+
+-- user_id sem FK: bancos antigos podem ter users ou tb_users
+CREATE TABLE orders (
+    id BIGSERIAL,
+    user_id BIGINT,
+    total NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_orders_created_at ON orders (created_at);
+
+CREATE TABLE order_items (
+    id BIGSERIAL,
+    order_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    unit_price NUMERIC(10, 2) NOT NULL,
+    subtotal NUMERIC(10, 2) NOT NULL,
+    PRIMARY KEY (id, created_at),
+    FOREIGN KEY (order_id, created_at) REFERENCES orders (id, created_at) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_order_items_order ON order_items (order_id, created_at);
+
+-- Mesma função de db/migration/R__create_monthly_partitions.sql
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent TEXT, months_ahead INT DEFAULT 3, months_back INT DEFAULT 0)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start DATE := (date_trunc('month', CURRENT_DATE) - make_interval(months => months_back))::date;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + make_interval(months => months_ahead))::date;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        partition_name := format('%s_p%s', parent, to_char(month_start, 'YYYY_MM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                partition_name, parent, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+-- Meses desde o pedido mais antigo
+DO $$
+DECLARE
+    months_back INT;
+BEGIN
+    SELECT COALESCE((EXTRACT(YEAR FROM age(date_trunc('month', CURRENT_DATE), date_trunc('month', min(created_at)))) * 12
+            + EXTRACT(MONTH FROM age(date_trunc('month', CURRENT_DATE), date_trunc('month', min(created_at)))))::int, 0)
+      INTO months_back
+      FROM orders_legacy;
+    PERFORM create_monthly_partitions('orders', 3, months_back);
+    PERFORM create_monthly_partitions('order_items', 3, months_back);
+END;
+$$;
+
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+INSERT INTO orders (id, user_id, total, created_at, status)
+SELECT id, user_id, total, COALESCE(created_at, CURRENT_TIMESTAMP), status
+  FROM orders_legacy;
+
+INSERT INTO order_items (id, order_id, created_at, product_id, quantity, unit_price, subtotal)
+SELECT i.id, i.order_id, o.created_at, i.product_id, i.quantity, i.unit_price, i.subtotal
+  FROM order_items_legacy i
+  JOIN orders o ON o.id = i.order_id;
+
+SELECT setval(pg_get_serial_sequence('orders', 'id'), COALESCE((SELECT max(id) FROM orders), 0) + 1, false);
+SELECT setval(pg_get_serial_sequence('order_items', 'id'), COALESCE((SELECT max(id) FROM order_items), 0) + 1, false);
+
+DROP TABLE order_items_legacy;
+DROP TABLE orders_legacy;
+
+ANALYZE orders;
+ANALYZE order_items;
@@ -0,0 +1,5 @@
+#!/bin/sh
+# Executado pelo entrypoint do postgres (docker-entrypoint-initdb.d) na criação
+# do volume: libera conexões de replicação para a réplica do docker-compose.
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
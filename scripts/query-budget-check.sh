@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# =============================================
+# VERIFICAÇÃO DE ORÇAMENTO DE QUERIES POR ENDPOINT
+# =============================================
+# Exercita cada endpoint monitorado contra a API rodando no perfil
+# "querybudget" (enforce=true). Qualquer endpoint acima do orçamento
+# responde 500 e o script termina com código 1.
+#
+# Uso:
+#   mvn spring-boot:run -Dspring-boot.run.profiles=querybudget &
+#   ./scripts/query-budget-check.sh [http://localhost:8080]
+# =============================================
+set -uo pipefail
+
+BASE_URL="${1:-http://localhost:8080}"
+FAILURES=0
+
+check() {
+    local method="$1" path="$2" body="${3:-}"
+    local args=(-s -o /tmp/query-budget-body -D /tmp/query-budget-headers -w '%{http_code}' -X "$method")
+    if [[ -n "$body" ]]; then
+        args+=(-H 'Content-Type: application/json' -d "$body")
+    fi
+
+    local status count
+    status=$(curl "${args[@]}" "$BASE_URL$path")
+    count=$(grep -i '^X-Query-Count:' /tmp/query-budget-headers | tr -d '\r' | awk '{print $2}')
+
+    if [[ "$status" == "500" ]] && grep -q 'Query Budget Exceeded' /tmp/query-budget-body; then
+        echo "❌ $method $path -> $(cat /tmp/query-budget-body)"
+        FAILURES=$((FAILURES + 1))
+    elif [[ "$status" == "000" || "$status" -ge 400 ]]; then
+        echo "⚠️  $method $path -> HTTP $status (queries: ${count:-?})"
+        FAILURES=$((FAILURES + 1))
+    else
+        echo "✅ $method $path -> HTTP $status (queries: ${count:-?})"
+    fi
+}
+
+check GET  "/api/products?page=0&size=10"
+check GET  "/api/products/all"
+check GET  "/api/products?ids=1,2,3,999999"
+check POST "/api/products/batch" '{"ids":[1,2,3,999999]}'
+check GET  "/api/products/facets"
+check GET  "/api/products/filter?categoryId=1&categoryId=2&inStock=true&maxPrice=1000&sort=price,desc"
+check POST "/cart/quote" '{"items":[{"productId":1,"quantity":1},{"productId":2,"quantity":1}]}'
+check POST "/cart/checkout" '{"items":[{"productId":1,"quantity":1},{"productId":2,"quantity":1}]}'
+check GET  "/cart/orders"
+check GET  "/cart/orders/1"
+check GET  "/api/orders/user/1"
+
+# Carrinho no servidor (o ID pode ser qualquer UUID; o checkout o esvazia)
+CART="/cart/carts/00000000-0000-0000-0000-00000000b0d9"
+check PUT  "$CART/items" '{"productId":1,"quantity":1}'
+check PUT  "$CART/items" '{"productId":2,"quantity":1}'
+check GET  "$CART"
+check POST "$CART/checkout"
+
+if [[ $FAILURES -gt 0 ]]; then
+    echo "$FAILURES endpoint(s) fora do orçamento ou com erro"
+    exit 1
+fi
+echo "Todos os endpoints dentro do orçamento"
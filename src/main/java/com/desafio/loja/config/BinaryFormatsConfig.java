@@ -0,0 +1,52 @@
+package com.desafio.loja.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Representações binárias das respostas da API, negociadas pelo
+ * {@code Accept}: {@code application/cbor} e
+ * {@code application/x-jackson-smile}. Sem o cabeçalho (ou com
+ * {@code application/json}) nada muda.
+ *
+ * <p>
+ * Os conversores usam o {@link Jackson2ObjectMapperBuilder} do Spring Boot,
+ * então os DTOs, módulos e propriedades {@code spring.jackson.*} são os
+ * mesmos do JSON. Declarados como beans, substituem os conversores padrão do
+ * Spring MVC, que ignorariam essa configuração.
+ * </p>
+ *
+ * <p>
+ * <b>Diferença intencional:</b> nos formatos binários, datas saem como
+ * números ({@code [2026,1,16,20,24]}) em vez de texto ISO, e
+ * {@code BigDecimal} usa a codificação decimal nativa do formato. O
+ * consumidor não converte texto em preço ou data.
+ * </p>
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory()));
+    }
+
+    private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.desafio.loja.config;
+
+import com.desafio.loja.dto.ErrorResponseDTO;
+import com.desafio.loja.util.AimdLimit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Filtro que limita a concorrência das rotas de escrita com um
+ * {@link AimdLimit} e recusa o excedente na hora com 503.
+ *
+ * <p>
+ * <b>Por que existe:</b> com o PostgreSQL lento, checkouts se acumulam nas
+ * threads do Tomcat esperando conexão do Hikari até o timeout do pool, e a
+ * fila derruba junto as leituras do catálogo. Com o limite, o excedente
+ * recebe {@code 503} com {@code Retry-After} em segundos, sem ocupar
+ * thread nem conexão, e o limite acompanha a latência observada.
+ * </p>
+ *
+ * <p>
+ * <b>Prioridade:</b> checkouts ({@code POST /cart/checkout},
+ * {@code /cart/checkout/bulk}, {@code /cart/carts/{id}/checkout}) podem
+ * ocupar o limite inteiro; as demais rotas do carrinho, só
+ * {@code cart-share}; as escritas de produtos (admin), só
+ * {@code admin-share}. Sob carga, o admin é recusado primeiro. Leituras do
+ * catálogo passam direto.
+ * </p>
+ *
+ * <p>
+ * <b>Métricas:</b> {@code loja.limiter.limit},
+ * {@code loja.limiter.inflight}, {@code loja.limiter.rejected} (tag
+ * {@code priority}).
+ * </p>
+ *
+ * @see ConcurrencyLimitProperties
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    /**
+     * Classe de tráfego, da mais para a menos prioritária.
+     */
+    enum Priority {
+        CHECKOUT, CART, ADMIN
+    }
+
+    private final AimdLimit limit;
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.limit = new AimdLimit(properties.initialLimit(), properties.minLimit(), properties.maxLimit(),
+                properties.backoffRatio(), properties.latencyThreshold().toNanos());
+        this.shares.put(Priority.CHECKOUT, 1.0);
+        this.shares.put(Priority.CART, properties.cartShare());
+        this.shares.put(Priority.ADMIN, properties.adminShare());
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.retryAfter().toSeconds()));
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("loja.limiter.limit", limit, AimdLimit::limit)
+                .description("Limite atual de requisições de escrita simultâneas")
+                .register(meterRegistry);
+        Gauge.builder("loja.limiter.inflight", limit, AimdLimit::inFlight)
+                .description("Requisições de escrita em andamento")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("loja.limiter.rejected")
+                    .description("Requisições recusadas com 503 pelo limite de concorrência")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Priority priority = classify(request);
+        if (priority == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!limit.tryAcquire(shares.get(priority))) {
+            rejected.get(priority).increment();
+            log.debug("Requisição recusada pelo limite de concorrência ({}): {} {}", limit.limit(),
+                    request.getMethod(), request.getRequestURI());
+            writeRejection(request, response);
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limit.release(started, System.nanoTime(), failed);
+        }
+    }
+
+    /**
+     * @return classe de tráfego, ou {@code null} se a rota não é limitada
+     */
+    Priority classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/cart/")) {
+            boolean checkout = HttpMethod.POST.matches(method)
+                    && (path.startsWith("/cart/checkout") || matcher.match("/cart/carts/*/checkout", path));
+            return checkout ? Priority.CHECKOUT : Priority.CART;
+        }
+        boolean productWrite = HttpMethod.PUT.matches(method) || HttpMethod.DELETE.matches(method)
+                // POST /api/products/batch é uma leitura
+                || HttpMethod.POST.matches(method) && !path.equals("/api/products/batch");
+        if (path.startsWith("/api/products") && productWrite) {
+            return Priority.ADMIN;
+        }
+        return null;
+    }
+
+    private void writeRejection(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "Servidor sobrecarregado. Tente novamente em " + retryAfterSeconds + " s.",
+                request.getRequestURI());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
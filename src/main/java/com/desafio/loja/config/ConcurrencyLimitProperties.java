@@ -0,0 +1,34 @@
+package com.desafio.loja.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limite adaptativo de concorrência das rotas de escrita
+ * ({@code loja.limiter.*}).
+ *
+ * @param enabled          se o limitador está ativo
+ * @param initialLimit     limite inicial de requisições simultâneas
+ * @param minLimit         limite mínimo
+ * @param maxLimit         limite máximo (não adianta passar das threads do
+ *                         Tomcat)
+ * @param backoffRatio     fator de redução quando há sobrecarga
+ * @param latencyThreshold latência acima da qual uma requisição conta como
+ *                         sobrecarga
+ * @param retryAfter       valor do cabeçalho {@code Retry-After} no 503
+ * @param cartShare        fração do limite para as demais rotas do carrinho
+ * @param adminShare       fração do limite para as escritas de produtos
+ */
+@ConfigurationProperties(prefix = "loja.limiter")
+public record ConcurrencyLimitProperties(
+        boolean enabled,
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        double backoffRatio,
+        Duration latencyThreshold,
+        Duration retryAfter,
+        double cartShare,
+        double adminShare) {
+}
@@ -2,8 +2,10 @@ package com.desafio.loja.config;
 
 import com.desafio.loja.model.User;
 import com.desafio.loja.repository.UserRepository;
+import com.desafio.loja.service.UserExistenceFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,7 +15,11 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
  * Configuração de Dados Iniciais (Seed).
  * 
  * Cria usuários padrão ao iniciar a aplicação.
- * Os usuários só são criados se não existirem.
+ * Os usuários só são criados se não existirem. A verificação passa pelo
+ * {@link UserExistenceFilter}: o banco só é consultado para confirmar nomes
+ * que o filtro aponta como possivelmente existentes.
+ * Desligado com {@code loja.seed.enabled=false} (perfil
+ * {@code fast-startup}): cada usuário criado custa um hash BCrypt.
  * 
  * @author Desafio Técnico Moura Tech
  */
@@ -30,29 +36,34 @@ public class DataSeederConfig {
      * - cliente / cliente123 (CLIENT)
      */
     @Bean
-    CommandLineRunner seedUsers(UserRepository userRepository) {
+    CommandLineRunner seedUsers(UserRepository userRepository, UserExistenceFilter userFilter,
+            @Value("${loja.seed.enabled:true}") boolean enabled) {
         return args -> {
+            if (!enabled) {
+                log.info("👤 Seed de usuários desativado (loja.seed.enabled=false)");
+                return;
+            }
             BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
 
             // Cria usuário ADMIN se não existir
-            if (userRepository.findByName("admin").isEmpty()) {
+            if (!userFilter.isNameTaken("admin")) {
                 User admin = new User();
                 admin.setName("admin");
                 admin.setEmail("admin@moura.com.br");
                 admin.setPassword(encoder.encode("admin123"));
                 admin.setRole("ADMIN");
-                userRepository.save(admin);
+                userFilter.register(userRepository.save(admin));
                 log.info("✅ Usuário ADMIN criado: admin / admin123");
             }
 
             // Cria usuário CLIENTE se não existir
-            if (userRepository.findByName("cliente").isEmpty()) {
+            if (!userFilter.isNameTaken("cliente")) {
                 User cliente = new User();
                 cliente.setName("cliente");
                 cliente.setEmail("cliente@email.com");
                 cliente.setPassword(encoder.encode("cliente123"));
                 cliente.setRole("CLIENT");
-                userRepository.save(cliente);
+                userFilter.register(userRepository.save(cliente));
                 log.info("✅ Usuário CLIENTE criado: cliente / cliente123");
             }
 
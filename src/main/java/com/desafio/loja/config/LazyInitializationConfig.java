@@ -0,0 +1,50 @@
+package com.desafio.loja.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Beans que continuam sendo criados na subida com
+ * {@code spring.main.lazy-initialization=true} (perfil
+ * {@code fast-startup}).
+ *
+ * <p>
+ * Com inicialização preguiçosa, um bean só é criado no primeiro uso. Para
+ * SpringDoc, controllers e conversores isso só adia custo para a primeira
+ * requisição; mas tarefas {@code @Scheduled} só são registradas quando o
+ * bean existe, e {@link SmartLifecycle} e os ouvintes de eventos
+ * ({@code @EventListener}, inclusive {@code ApplicationReadyEvent} e
+ * {@code @TransactionalEventListener}) precisam estar prontos na subida
+ * (expiração de carrinhos, partições, {@code LISTEN} entre nós, métricas).
+ * Esses beans ficam de fora.
+ * </p>
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter startupCriticalBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (SmartLifecycle.class.isAssignableFrom(beanType) || hasStartupMethods(beanType));
+    }
+
+    private static boolean hasStartupMethods(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> found.set(true), LazyInitializationConfig::isStartupMethod);
+        return found.get();
+    }
+
+    private static boolean isStartupMethod(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(method, EventListener.class);
+    }
+}
@@ -0,0 +1,143 @@
+package com.desafio.loja.config;
+
+import com.desafio.loja.dto.CartDTO;
+import com.desafio.loja.dto.CartItemDTO;
+import com.desafio.loja.dto.CartQuoteDTO;
+import com.desafio.loja.dto.CategoryFacetDTO;
+import com.desafio.loja.dto.CheckoutRejectionDTO;
+import com.desafio.loja.dto.CheckoutRequestDTO;
+import com.desafio.loja.dto.ErrorResponseDTO;
+import com.desafio.loja.dto.OrderItemDTO;
+import com.desafio.loja.dto.OrderResponseDTO;
+import com.desafio.loja.dto.ProductBatchDTO;
+import com.desafio.loja.dto.ProductDTO;
+import com.desafio.loja.dto.ProductIdsRequestDTO;
+import com.desafio.loja.dto.ProductResponseDTO;
+import com.desafio.loja.dto.StockDeltaDTO;
+import com.desafio.loja.model.ArchivedOrderEntry;
+import com.desafio.loja.model.Category;
+import com.desafio.loja.model.Order;
+import com.desafio.loja.model.OrderItem;
+import com.desafio.loja.model.OrderStatus;
+import com.desafio.loja.model.Product;
+import com.desafio.loja.model.StockHold;
+import com.desafio.loja.model.User;
+import com.desafio.loja.repository.OrderArchiveRepository;
+import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.repository.StockHoldRepository;
+import com.desafio.loja.repository.UserRepository;
+import ch.qos.logback.classic.AsyncAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import net.logstash.logback.stacktrace.ShortenedThrowableConverter;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Hints de reflexão, proxies e recursos para o executável nativo
+ * ({@code mvn -Pnative package}).
+ *
+ * <p>
+ * O processamento AOT do Spring já cobre os beans, os repositórios e os
+ * tipos que aparecem nas assinaturas dos controllers. Ficam aqui os acessos
+ * que ele não enxerga:
+ * </p>
+ * <ul>
+ * <li><b>Entidades:</b> o Hibernate lê campos e chama os getters/setters e
+ * construtores gerados pelo Lombok por reflexão.</li>
+ * <li><b>DTOs:</b> records serializados pelo Jackson fora de um controller
+ * (stream SSE, arquivo de pedidos, {@code ResponseEntity<?>}), incluindo os
+ * aninhados.</li>
+ * <li><b>Projeções:</b> interfaces dos repositórios viram proxies JDK em
+ * runtime; no nativo a lista de interfaces precisa existir no build.</li>
+ * <li><b>datasource-proxy:</b> cada objeto JDBC envolvido pelo
+ * {@link SqlLoggingConfig} é um proxy JDK de
+ * {@code [ProxyJdbcObject, tipo JDBC]}, nessa ordem.</li>
+ * <li><b>Logback:</b> as classes do logstash encoder nomeadas em
+ * {@code logback-spring.xml} são instanciadas e configuradas por reflexão.</li>
+ * <li><b>Swagger UI:</b> os arquivos estáticos do webjar (os modelos do
+ * OpenAPI já vêm nos hints do próprio SpringDoc).</li>
+ * </ul>
+ *
+ * <p>
+ * No JVM nada disso tem efeito: os hints só são lidos pelo
+ * {@code native-image}.
+ * </p>
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.LojaRuntimeHints.class)
+@RegisterReflectionForBinding({
+        CartDTO.class, CartItemDTO.class, CartQuoteDTO.class, CartQuoteDTO.Line.class,
+        CategoryFacetDTO.class, CheckoutRejectionDTO.class, CheckoutRejectionDTO.Line.class,
+        CheckoutRequestDTO.class, ErrorResponseDTO.class,
+        OrderItemDTO.class, OrderResponseDTO.class, ProductBatchDTO.class, ProductDTO.class,
+        ProductIdsRequestDTO.class, ProductResponseDTO.class, StockDeltaDTO.class,
+        StockDeltaDTO.Batch.class, OrderArchiveRepository.ArchivedOrder.class,
+        OrderArchiveRepository.ArchivedOrder.Item.class})
+public class NativeHintsConfig {
+
+    static final List<Class<?>> ENTITIES = List.of(
+            Product.class, Category.class, Order.class, OrderItem.class, User.class, StockHold.class,
+            ArchivedOrderEntry.class);
+
+    static final List<Class<?>> PROJECTIONS = List.of(
+            ProductRepository.FilterRow.class,
+            StockHoldRepository.CartDeadline.class, UserRepository.UserIdentity.class);
+
+    static final List<Class<?>> JDBC_TYPES = List.of(
+            Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class,
+            ResultSet.class);
+
+    static class LojaRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> entity : ENTITIES) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            // Enum gravado como texto (valueOf/values por reflexão)
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), OrderStatus.class);
+
+            for (Class<?> projection : PROJECTIONS) {
+                hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_METHODS);
+                // Mesma lista de interfaces que o ProxyProjectionFactory monta (proxy opaco)
+                hints.proxies().registerJdkProxy(projection, TargetAware.class, SpringProxy.class,
+                        DecoratingProxy.class);
+            }
+
+            for (Class<?> jdbcType : JDBC_TYPES) {
+                hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+            }
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, DataSource.class);
+
+            for (Class<?> logbackType : List.of(
+                    AsyncAppender.class, LogstashEncoder.class, ShortenedThrowableConverter.class)) {
+                hints.reflection().registerType(logbackType,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/*");
+            hints.resources().registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+        }
+    }
+}
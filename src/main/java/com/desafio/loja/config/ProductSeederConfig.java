@@ -1,9 +1,12 @@
 package com.desafio.loja.config;
 
+import com.desafio.loja.model.Category;
 import com.desafio.loja.model.Product;
+import com.desafio.loja.repository.CategoryRepository;
 import com.desafio.loja.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,7 +18,8 @@ import java.util.List;
  * Configuração de Dados Iniciais - Produtos.
  * 
  * Popula o banco com produtos de exemplo ao iniciar a aplicação,
- * caso a tabela esteja vazia.
+ * caso a tabela esteja vazia. Desligado com {@code loja.seed.enabled=false}
+ * (perfil {@code fast-startup}).
  * 
  * @author Desafio Técnico Moura Tech
  */
@@ -35,10 +39,16 @@ public class ProductSeederConfig {
      * - Bateria estacionária/nobreak
      */
     @Bean
-    CommandLineRunner seedProducts(ProductRepository productRepository) {
+    CommandLineRunner seedProducts(ProductRepository productRepository, CategoryRepository categoryRepository,
+            @Value("${loja.seed.enabled:true}") boolean enabled) {
         return args -> {
+            if (!enabled) {
+                log.info("📦 Seed de produtos desativado (loja.seed.enabled=false)");
+                return;
+            }
             // Só insere se a tabela estiver vazia
-            if (productRepository.count() == 0) {
+            long existentes = productRepository.count();
+            if (existentes == 0) {
                 log.info("📦 Iniciando seed de produtos de exemplo...");
 
                 List<Product> produtos = List.of(
@@ -47,31 +57,31 @@ public class ProductSeederConfig {
                                 "Moura M60GD - 60Ah EFB",
                                 new BigDecimal("599.90"),
                                 25,
-                                "Automotiva (Carros)"),
+                                categoria(categoryRepository, "Automotiva (Carros)")),
                         // 2. Bateria para Motos
                         createProduct(
                                 "Moura MA5-D - 5Ah AGM",
                                 new BigDecimal("189.90"),
                                 40,
-                                "Motos"),
+                                categoria(categoryRepository, "Motos")),
                         // 3. Bateria para Caminhões/Ônibus
                         createProduct(
                                 "Moura M150BD - 150Ah Convencional",
                                 new BigDecimal("1299.00"),
                                 10,
-                                "Pesados (Caminhões/Ônibus)"),
+                                categoria(categoryRepository, "Pesados (Caminhões/Ônibus)")),
                         // 4. Bateria Náutica
                         createProduct(
                                 "Moura Boat MB105 - 105Ah Dual Purpose",
                                 new BigDecimal("899.00"),
                                 8,
-                                "Náutica / Boats"),
+                                categoria(categoryRepository, "Náutica / Boats")),
                         // 5. Bateria Estacionária/Nobreak
                         createProduct(
                                 "Moura Clean 12MF63 - 63Ah VRLA",
                                 new BigDecimal("459.90"),
                                 15,
-                                "Estacionária / Solar / Nobreak"));
+                                categoria(categoryRepository, "Estacionária / Solar / Nobreak")));
 
                 productRepository.saveAll(produtos);
 
@@ -80,16 +90,23 @@ public class ProductSeederConfig {
                 produtos.forEach(p -> log.info("   → {} | R$ {} | Estoque: {}",
                         p.getName(), p.getPrice(), p.getStock()));
             } else {
-                log.info("📦 Tabela de produtos já contém {} itens. Seed ignorado.",
-                        productRepository.count());
+                log.info("📦 Tabela de produtos já contém {} itens. Seed ignorado.", existentes);
             }
         };
     }
 
+    /**
+     * Busca a categoria no dicionário, criando-a na primeira vez.
+     */
+    private Category categoria(CategoryRepository categoryRepository, String name) {
+        return categoryRepository.findByName(name)
+                .orElseGet(() -> categoryRepository.save(new Category(null, name)));
+    }
+
     /**
      * Cria um produto com os dados fornecidos.
      */
-    private Product createProduct(String name, BigDecimal price, int stock, String category) {
+    private Product createProduct(String name, BigDecimal price, int stock, Category category) {
         Product product = new Product();
         product.setName(name);
         product.setPrice(price);
@@ -0,0 +1,47 @@
+package com.desafio.loja.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuração do orçamento de queries por endpoint.
+ *
+ * <p>
+ * Registra o {@link QueryCountInspector} no Hibernate e o
+ * {@link QueryBudgetFilter} para todas as rotas da API. Desligado com
+ * {@code loja.query-budget.enabled=false}.
+ * </p>
+ *
+ * <p>
+ * O perfil {@code querybudget} (H2 em modo PostgreSQL) liga o modo
+ * {@code enforce} para verificar os orçamentos localmente sem um Postgres.
+ * </p>
+ */
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+@ConditionalOnProperty(name = "loja.query-budget.enabled", havingValue = "true")
+public class QueryBudgetConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer queryCountInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+
+    @Bean
+    FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(QueryBudgetProperties properties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryBudgetFilter> registration = new FilterRegistrationBean<>(
+                new QueryBudgetFilter(properties, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*", "/cart/*", "/auth/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,160 @@
+package com.desafio.loja.config;
+
+import com.desafio.loja.dto.ErrorResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Filtro que mede quantas queries cada requisição executou e compara com o
+ * orçamento configurado para o endpoint.
+ *
+ * <p>
+ * <b>Por que existe:</b> os comentários "Evita N+1" nos repositórios não
+ * garantem nada por si só. Este filtro transforma o orçamento em uma regra
+ * verificável: toda resposta recebe o cabeçalho {@code X-Query-Count} e, no
+ * modo {@code enforce}, uma requisição acima do orçamento falha com 500.
+ * </p>
+ *
+ * <p>
+ * No modo {@code enforce} a resposta dos endpoints com orçamento é mantida
+ * em buffer até o fim da requisição, para que ainda seja possível trocá-la
+ * pelo erro. Streams ({@code Accept: text/event-stream}) não passam pelo
+ * buffer: só recebem a contagem e o alerta. Uma requisição assíncrona não
+ * pode mais ser trocada pelo erro; o buffer é entregue no fim do
+ * processamento assíncrono.
+ * </p>
+ *
+ * <p>
+ * O contador {@code loja.query.budget.exceeded} usa como tag a chave do
+ * orçamento ({@code endpoint="GET /cart/orders/*"}), não o caminho com IDs,
+ * para não criar uma série por pedido ou produto.
+ * </p>
+ *
+ * @see QueryCountInspector
+ * @see QueryBudgetProperties
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private final QueryBudgetProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    public QueryBudgetFilter(QueryBudgetProperties properties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        if (isAsyncDispatch(request)) {
+            // Fim de uma resposta assíncrona: entrega o que ficou no buffer
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response,
+                        ContentCachingResponseWrapper.class);
+                if (wrapper != null) {
+                    wrapper.copyBodyToResponse();
+                }
+            }
+            return;
+        }
+
+        Map.Entry<String, Integer> budget = findBudget(request);
+        ContentCachingResponseWrapper wrapper = properties.enforce() && budget != null && !isStream(request)
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+
+        QueryCountInspector.reset();
+        try {
+            chain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            int queries = QueryCountInspector.count();
+            boolean exceeded = budget != null && queries > budget.getValue();
+
+            if (exceeded) {
+                log.warn("Orçamento de queries excedido em {} {}: {} queries (orçamento: {})",
+                        request.getMethod(), request.getRequestURI(), queries, budget.getValue());
+                meterRegistry.counter("loja.query.budget.exceeded", "endpoint", budget.getKey()).increment();
+            }
+
+            if (wrapper != null && !request.isAsyncStarted()) {
+                if (exceeded) {
+                    wrapper.resetBuffer();
+                    writeViolation(wrapper, request, queries, budget.getValue());
+                }
+                wrapper.setHeader(QUERY_COUNT_HEADER, String.valueOf(queries));
+                wrapper.copyBodyToResponse();
+            } else if (!response.isCommitted()) {
+                // Sem buffer, ou assíncrona (só a contagem até aqui)
+                response.setHeader(QUERY_COUNT_HEADER, String.valueOf(queries));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * @return chave e valor do orçamento do endpoint, ou {@code null} se não
+     *         houver orçamento configurado
+     */
+    private Map.Entry<String, Integer> findBudget(HttpServletRequest request) {
+        String key = request.getMethod() + " " + request.getRequestURI();
+        Integer exact = properties.budgets().get(key);
+        if (exact != null) {
+            return Map.entry(key, exact);
+        }
+        for (Map.Entry<String, Integer> entry : properties.budgets().entrySet()) {
+            if (matcher.match(entry.getKey(), key)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private void writeViolation(HttpServletResponse response, HttpServletRequest request, int queries, int budget)
+            throws IOException {
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "Query Budget Exceeded",
+                String.format("A requisição executou %d queries (orçamento: %d)", queries, budget),
+                request.getRequestURI());
+
+        response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
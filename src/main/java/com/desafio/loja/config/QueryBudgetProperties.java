@@ -0,0 +1,26 @@
+package com.desafio.loja.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Orçamento de queries SQL por endpoint ({@code loja.query-budget.*}).
+ *
+ * <p>
+ * As chaves de {@code budgets} têm o formato {@code "MÉTODO /caminho"} e
+ * aceitam padrões Ant (ex: {@code GET /api/orders/user/*}).
+ * </p>
+ *
+ * @param enabled se a contagem por requisição está ativa
+ * @param enforce se {@code true}, uma requisição acima do orçamento responde
+ *                500; se {@code false}, apenas registra um alerta no log
+ * @param budgets quantidade máxima de queries por endpoint
+ */
+@ConfigurationProperties(prefix = "loja.query-budget")
+public record QueryBudgetProperties(boolean enabled, boolean enforce, Map<String, Integer> budgets) {
+
+    public QueryBudgetProperties {
+        budgets = budgets == null ? Map.of() : Map.copyOf(budgets);
+    }
+}
@@ -0,0 +1,39 @@
+package com.desafio.loja.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta as instruções SQL emitidas pelo Hibernate na thread atual.
+ *
+ * <p>
+ * O Hibernate chama {@link #inspect(String)} uma vez para cada statement
+ * preparado (SELECT, INSERT, UPDATE, DELETE). O contador é por thread, o que
+ * corresponde a uma requisição HTTP no modelo de servlets síncronos.
+ * </p>
+ *
+ * @see QueryBudgetFilter
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNTER = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNTER.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Zera o contador da thread atual.
+     */
+    public static void reset() {
+        COUNTER.get()[0] = 0;
+    }
+
+    /**
+     * Retorna quantas instruções foram emitidas desde o último {@link #reset()}.
+     */
+    public static int count() {
+        return COUNTER.get()[0];
+    }
+}
@@ -0,0 +1,119 @@
+package com.desafio.loja.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Verifica periodicamente a saúde e o atraso de replicação de cada réplica.
+ *
+ * <p>
+ * <b>Atraso em bytes de WAL, não em tempo:</b> compara a posição atual do WAL
+ * no primário ({@code pg_current_wal_lsn()}) com a última posição aplicada na
+ * réplica ({@code pg_last_wal_replay_lsn()}). Medir por
+ * {@code pg_last_xact_replay_timestamp()} acusaria atraso falso com o primário
+ * ocioso.
+ * </p>
+ *
+ * <p>
+ * Uma réplica sai do rodízio se a consulta falhar ou se o atraso passar de
+ * {@code loja.datasource.replicas.max-lag-bytes}, e volta na primeira
+ * verificação boa. Uma instância que não está em recovery (PostgreSQL
+ * independente, útil em testes locais) é tratada como atraso zero.
+ * </p>
+ *
+ * <p>
+ * Métricas: {@code loja.datasource.replica.healthy} e
+ * {@code loja.datasource.replica.lag.bytes}, tag {@code replica}.
+ * </p>
+ */
+class ReplicaHealthChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthChecker.class);
+
+    private static final String REPLAY_LAG = "SELECT pg_is_in_recovery(), "
+            + "pg_wal_lsn_diff(CAST(? AS pg_lsn), pg_last_wal_replay_lsn())";
+
+    private final DataSource primary;
+    private final ReplicaRoutingDataSource routing;
+    private final long maxLagBytes;
+
+    ReplicaHealthChecker(DataSource primary, ReplicaRoutingDataSource routing, long maxLagBytes,
+            MeterRegistry registry) {
+        this.primary = primary;
+        this.routing = routing;
+        this.maxLagBytes = maxLagBytes;
+        for (ReplicaRoutingDataSource.Replica replica : routing.replicas()) {
+            Gauge.builder("loja.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 se a réplica está recebendo leituras")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("loja.datasource.replica.lag.bytes", replica, r -> r.lagBytes)
+                    .description("Atraso de replicação em bytes de WAL")
+                    .tag("replica", replica.name)
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${loja.datasource.replicas.check-interval-ms:5000}")
+    void check() {
+        String primaryLsn;
+        try {
+            primaryLsn = currentPrimaryLsn();
+        } catch (SQLException e) {
+            // Sem o primário não há referência de atraso; mantém o estado atual
+            log.warn("Não foi possível ler a posição do WAL no primário: {}", e.getMessage());
+            return;
+        }
+        for (ReplicaRoutingDataSource.Replica replica : routing.replicas()) {
+            check(replica, primaryLsn);
+        }
+    }
+
+    private void check(ReplicaRoutingDataSource.Replica replica, String primaryLsn) {
+        boolean healthy;
+        try (Connection connection = replica.dataSource.getConnection();
+                PreparedStatement ps = connection.prepareStatement(REPLAY_LAG)) {
+            ps.setString(1, primaryLsn);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                boolean inRecovery = rs.getBoolean(1);
+                long lag = inRecovery ? Math.max(0, rs.getLong(2)) : 0;
+                replica.lagBytes = lag;
+                healthy = lag <= maxLagBytes;
+            }
+        } catch (SQLException e) {
+            healthy = false;
+            log.debug("Falha na verificação da réplica {}", replica.name, e);
+        }
+
+        if (healthy != replica.healthy) {
+            if (healthy) {
+                log.info("Réplica {} de volta ao rodízio (atraso {} bytes)", replica.name, replica.lagBytes);
+            } else {
+                log.warn("Réplica {} fora do rodízio (atraso {} bytes, limite {})", replica.name,
+                        replica.lagBytes, maxLagBytes);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    private String currentPrimaryLsn() throws SQLException {
+        try (Connection connection = primary.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT CAST(pg_current_wal_lsn() AS text)")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
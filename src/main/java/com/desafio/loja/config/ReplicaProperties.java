@@ -0,0 +1,40 @@
+package com.desafio.loja.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Réplicas de leitura do PostgreSQL ({@code loja.datasource.replicas.*}).
+ *
+ * @param enabled         se o roteamento leitura/escrita está ativo
+ * @param urls            URLs JDBC das réplicas
+ * @param username        usuário das réplicas (padrão: o do primário)
+ * @param password        senha das réplicas (padrão: a do primário)
+ * @param poolSize        conexões por réplica
+ * @param checkIntervalMs intervalo entre verificações de saúde e atraso
+ * @param maxLagBytes     atraso máximo de replicação (WAL ainda não aplicado,
+ *                        em bytes) para a réplica receber leituras
+ * @param routedPrefix    pacote dos métodos cujas transações readOnly vão
+ *                        para as réplicas
+ */
+@ConfigurationProperties(prefix = "loja.datasource.replicas")
+public record ReplicaProperties(boolean enabled, List<String> urls, String username, String password,
+        int poolSize, long checkIntervalMs, long maxLagBytes, String routedPrefix) {
+
+    public ReplicaProperties {
+        urls = urls == null ? List.of() : List.copyOf(urls);
+        if (poolSize <= 0) {
+            poolSize = 10;
+        }
+        if (checkIntervalMs <= 0) {
+            checkIntervalMs = 5000;
+        }
+        if (maxLagBytes <= 0) {
+            maxLagBytes = 16L * 1024 * 1024;
+        }
+        if (routedPrefix == null || routedPrefix.isBlank()) {
+            routedPrefix = "com.desafio.loja.service.";
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.desafio.loja.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roteamento leitura/escrita entre o PostgreSQL primário e réplicas.
+ *
+ * <p>
+ * Ativado com {@code loja.datasource.replicas.enabled=true}. Substitui o
+ * {@link DataSource} do Spring Boot por:
+ * </p>
+ *
+ * <pre>
+ * LazyConnectionDataSourceProxy
+ *   └── ReplicaRoutingDataSource
+ *         ├── primário  (spring.datasource.*, spring.datasource.hikari.*)
+ *         └── réplicas  (loja.datasource.replicas.urls)
+ * </pre>
+ *
+ * <p>
+ * Os pools Hikari não são beans (o Spring enxergaria vários DataSources);
+ * o {@link ReplicaRoutingDataSource} os fecha no desligamento. As métricas
+ * de cada pool são publicadas pelo próprio Hikari com os nomes
+ * {@code primary} e {@code replica-N}. O contador
+ * {@code loja.datasource.replica.fallback} mede leituras que foram ao
+ * primário por falta de réplica saudável.
+ * </p>
+ *
+ * @see ReplicaRoutingDataSource
+ * @see ReplicaHealthChecker
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(name = "loja.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+            ReplicaProperties replicaProperties, Environment environment, MeterRegistry meterRegistry) {
+        if (replicaProperties.urls().isEmpty()) {
+            throw new IllegalStateException(
+                    "loja.datasource.replicas.enabled=true exige ao menos uma URL em loja.datasource.replicas.urls");
+        }
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.urls().size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaProperties.urls().get(i));
+            replica.setUsername(replicaProperties.username() != null
+                    ? replicaProperties.username()
+                    : dataSourceProperties.determineUsername());
+            replica.setPassword(replicaProperties.password() != null
+                    ? replicaProperties.password()
+                    : dataSourceProperties.determinePassword());
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaProperties.poolSize());
+            replica.setReadOnly(true);
+            // Réplica fora do ar não impede a aplicação de subir
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+
+        Counter fallback = Counter.builder("loja.datasource.replica.fallback")
+                .description("Leituras enviadas ao primário por falta de réplica saudável")
+                .register(meterRegistry);
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProperties.routedPrefix(), fallback::increment);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Devolve a conexão ao fim de cada transação. O padrão do Spring Boot
+     * (manter a conexão até o fim da sessão) faria, com open-in-view, a
+     * primeira transação da requisição decidir primário/réplica para todas as
+     * seguintes.
+     */
+    @Bean
+    HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    ReplicaHealthChecker replicaHealthChecker(ReplicaRoutingDataSource routing,
+            ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+        return new ReplicaHealthChecker(routing.getResolvedDefaultDataSource(), routing,
+                replicaProperties.maxLagBytes(), meterRegistry);
+    }
+}
@@ -0,0 +1,134 @@
+package com.desafio.loja.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DataSource} que envia transações somente leitura para as réplicas.
+ *
+ * <p>
+ * <b>Regra:</b> transações {@code @Transactional(readOnly = true)} iniciadas
+ * por métodos dos serviços ({@code routedPrefix}) vão para uma réplica
+ * saudável (round-robin); todo o resto vai para o primário. Caminhos que
+ * precisam ler o que acabaram de gravar (ex: {@code OrderService.findById})
+ * simplesmente não são marcados como {@code readOnly}.
+ * </p>
+ *
+ * <p>
+ * <b>Por que olhar quem iniciou a transação?</b> Os repositórios do Spring
+ * Data são {@code readOnly} por padrão. Sem o filtro, qualquer leitura direta
+ * de repositório (login, seeders, snapshot do catálogo logo após um commit)
+ * iria para uma réplica possivelmente atrasada.
+ * </p>
+ *
+ * <p>
+ * <b>Fallback:</b> réplicas fora do ar ou atrasadas além do limite
+ * ({@link ReplicaHealthChecker}) saem do rodízio; sem nenhuma réplica
+ * saudável, as leituras vão para o primário.
+ * </p>
+ *
+ * <p>
+ * Precisa estar envolvido por um {@code LazyConnectionDataSourceProxy}: a
+ * conexão real só é obtida depois que a transação marcou o
+ * {@code readOnly}.
+ * </p>
+ *
+ * <p>
+ * Os pools do primário e das réplicas não são beans: eles são fechados aqui
+ * no desligamento ({@link #destroy()}), depois do {@code EntityManagerFactory}
+ * que depende deste bean.
+ * </p>
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Réplica e seu estado, atualizado pelo {@link ReplicaHealthChecker}.
+     */
+    static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+        volatile long lagBytes;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final String routedPrefix;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Runnable onFallback;
+
+    ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, String routedPrefix, Runnable onFallback) {
+        this.replicas = List.copyOf(replicas);
+        this.routedPrefix = routedPrefix;
+        this.onFallback = onFallback;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Fecha os pools do primário e das réplicas.
+     */
+    @Override
+    public void destroy() {
+        for (Map.Entry<Object, DataSource> target : getResolvedDataSources().entrySet()) {
+            if (target.getValue() instanceof AutoCloseable pool) {
+                try {
+                    pool.close();
+                } catch (Exception e) {
+                    log.warn("Falha ao fechar o pool {}", target.getKey(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        // Nome da transação = método que a iniciou (ex: ...service.ProductService.findAll)
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transactionName == null || !transactionName.startsWith(routedPrefix)) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        log.debug("Nenhuma réplica saudável; leitura enviada ao primário");
+        onFallback.run();
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,13 @@
+package com.desafio.loja.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas {@code @Scheduled} da aplicação (manutenção de
+ * partições, verificação de réplicas).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
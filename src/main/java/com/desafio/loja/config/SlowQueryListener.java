@@ -0,0 +1,117 @@
+package com.desafio.loja.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registra comandos SQL lentos (sempre) e uma amostra dos demais, com
+ * parâmetros.
+ *
+ * <p>
+ * Logger {@code com.desafio.loja.sql}. Cada entrada leva os campos
+ * estruturados {@code durationMs}, {@code batchSize} e {@code sql}, que
+ * viram atributos no JSON do perfil {@code prod}.
+ * </p>
+ *
+ * <p>
+ * <b>Custo:</b> a formatação (query e parâmetros) só acontece quando o
+ * comando vai de fato para o log; no caminho comum o custo é uma comparação
+ * e, se houver amostragem, um número aleatório.
+ * </p>
+ *
+ * <p>
+ * Parâmetros de comandos sobre {@code tb_users} nunca são registrados (hash de
+ * senha).
+ * </p>
+ */
+class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("com.desafio.loja.sql");
+
+    private final long slowThresholdMs;
+    private final double sampleRate;
+    private final int maxBatchParams;
+
+    SlowQueryListener(SqlLoggingProperties properties) {
+        this.slowThresholdMs = properties.slowThresholdMs();
+        this.sampleRate = properties.sampleRate();
+        this.maxBatchParams = properties.maxBatchParams();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // nada a fazer antes da execução
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        Level level;
+        if (elapsed >= slowThresholdMs) {
+            level = Level.WARN;
+        } else if (sampleRate > 0 && log.isDebugEnabled()
+                && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            level = Level.DEBUG;
+        } else {
+            return;
+        }
+
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = queryInfo.getQuery();
+            log.atLevel(level)
+                    .addKeyValue("durationMs", elapsed)
+                    .addKeyValue("batchSize", execInfo.isBatch() ? execInfo.getBatchSize() : 1)
+                    .addKeyValue("sql", sql)
+                    .log("{} SQL {} ms{}: {} {}",
+                            level == Level.WARN ? "Lento" : "Amostra",
+                            elapsed,
+                            execInfo.isSuccess() ? "" : " (falhou)",
+                            sql,
+                            formatParameters(sql, queryInfo.getParametersList()));
+        }
+    }
+
+    private String formatParameters(String sql, List<List<ParameterSetOperation>> argsList) {
+        if (argsList.isEmpty()) {
+            return "";
+        }
+        if (sql.toLowerCase(Locale.ROOT).contains("tb_users")) {
+            return "params=[omitidos]";
+        }
+        StringBuilder sb = new StringBuilder("params=");
+        int shown = Math.min(argsList.size(), maxBatchParams);
+        for (int i = 0; i < shown; i++) {
+            // args[0] é o índice do parâmetro (ou o nome) e args[1] o valor; ordena pelo índice
+            sb.append(argsList.get(i).stream()
+                    .filter(operation -> !ParameterSetOperation.isRegisterOutParameterOperation(operation))
+                    .sorted(Comparator.comparingInt(SlowQueryListener::index))
+                    .map(SlowQueryListener::value)
+                    .toList());
+        }
+        if (argsList.size() > shown) {
+            sb.append(" ... +").append(argsList.size() - shown).append(" conjuntos");
+        }
+        return sb.toString();
+    }
+
+    private static int index(ParameterSetOperation operation) {
+        return operation.getArgs()[0] instanceof Integer position ? position : Integer.MAX_VALUE;
+    }
+
+    private static String value(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        return ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2
+                ? "null"
+                : String.valueOf(args[1]);
+    }
+}
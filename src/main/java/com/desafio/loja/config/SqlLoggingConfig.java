@@ -0,0 +1,47 @@
+package com.desafio.loja.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Instala o {@link SlowQueryListener} envolvendo o {@link DataSource} com o
+ * datasource-proxy.
+ *
+ * <p>
+ * Por ficar na camada JDBC, cobre tanto o Hibernate quanto o
+ * {@code JdbcTemplate} (checkout em lote). Desligado com
+ * {@code loja.sql-log.enabled=false}.
+ * </p>
+ */
+@Configuration
+@EnableConfigurationProperties(SqlLoggingProperties.class)
+@ConditionalOnProperty(name = "loja.sql-log.enabled", havingValue = "true")
+public class SqlLoggingConfig {
+
+    @Bean
+    static BeanPostProcessor sqlLoggingDataSourcePostProcessor(
+            ObjectProvider<SqlLoggingProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Só o DataSource da aplicação; pools internos (ex: réplicas) ficam sem proxy
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SlowQueryListener(properties.getObject()))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
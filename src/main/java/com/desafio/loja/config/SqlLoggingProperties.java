@@ -0,0 +1,30 @@
+package com.desafio.loja.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Log de SQL seletivo ({@code loja.sql-log.*}).
+ *
+ * <p>
+ * Substitui o {@code spring.jpa.show-sql}: em vez de imprimir todo comando,
+ * registra apenas os lentos e uma amostra dos demais, sempre com os
+ * parâmetros.
+ * </p>
+ *
+ * @param enabled         se o proxy de log de SQL é instalado no DataSource
+ * @param slowThresholdMs comandos com duração maior ou igual a este valor são
+ *                        sempre registrados (WARN)
+ * @param sampleRate      fração (0.0 a 1.0) dos demais comandos registrada em
+ *                        DEBUG; {@code 1.0} equivale ao antigo show-sql
+ * @param maxBatchParams  quantos conjuntos de parâmetros de um batch entram no
+ *                        log
+ */
+@ConfigurationProperties(prefix = "loja.sql-log")
+public record SqlLoggingProperties(boolean enabled, long slowThresholdMs, double sampleRate, int maxBatchParams) {
+
+    public SqlLoggingProperties {
+        if (maxBatchParams <= 0) {
+            maxBatchParams = 5;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.desafio.loja.controller;
 
 import com.desafio.loja.model.User;
 import com.desafio.loja.repository.UserRepository;
+import com.desafio.loja.service.UserExistenceFilter;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -23,10 +25,12 @@ import java.util.Map;
 public class AuthController {
 
     private final UserRepository repository;
+    private final UserExistenceFilter userFilter;
     private final BCryptPasswordEncoder passwordEncoder;
 
-    public AuthController(UserRepository repository) {
+    public AuthController(UserRepository repository, UserExistenceFilter userFilter) {
         this.repository = repository;
+        this.userFilter = userFilter;
         this.passwordEncoder = new BCryptPasswordEncoder();
     }
 
@@ -41,7 +45,8 @@ public class AuthController {
         String username = dados.get("username");
         String password = dados.get("password");
 
-        // Busca o usuário pelo nome
+        // Busca o usuário pelo nome (sempre no banco: o filtro de Bloom é local
+        // ao nó e não enxerga usuários criados em outro nó ou por SQL)
         User usuario = repository.findByName(username).orElse(null);
 
         // Verifica se existe e se a senha bate (usando BCrypt)
@@ -64,17 +69,49 @@ public class AuthController {
      */
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User novoUsuario) {
-        // Verifica se o nome já existe
-        if (repository.findByName(novoUsuario.getName()).isPresent()) {
+        // Campos obrigatórios (o nome é NOT NULL e a senha vai para o BCrypt)
+        if (novoUsuario.getName() == null || novoUsuario.getName().isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Nome de usuário é obrigatório!"));
+        }
+        if (novoUsuario.getPassword() == null || novoUsuario.getPassword().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Senha é obrigatória!"));
+        }
+
+        // Verifica se o nome ou o email já existem (o filtro evita a query na maioria dos casos)
+        if (userFilter.isNameTaken(novoUsuario.getName())) {
             return ResponseEntity.badRequest().body(Map.of(
                     "error", "Usuário já existe!"));
         }
+        if (novoUsuario.getEmail() != null && userFilter.isEmailTaken(novoUsuario.getEmail())) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Email já cadastrado!"));
+        }
 
         // Criptografa a senha antes de salvar
         String senhaHash = passwordEncoder.encode(novoUsuario.getPassword());
         novoUsuario.setPassword(senhaHash);
 
-        User salvo = repository.save(novoUsuario);
+        User salvo;
+        try {
+            salvo = repository.save(novoUsuario);
+        } catch (DataIntegrityViolationException e) {
+            // Cadastro concorrente com o mesmo nome/email: o índice único decide.
+            // Confere no banco qual restrição foi violada (sem o filtro, que é local ao nó)
+            if (repository.findByName(novoUsuario.getName()).isPresent()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "error", "Usuário já existe!"));
+            }
+            if (novoUsuario.getEmail() != null && repository.findByEmail(novoUsuario.getEmail()).isPresent()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "error", "Email já cadastrado!"));
+            }
+            // Outras restrições (ex: nome maior que a coluna)
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Dados de cadastro inválidos!"));
+        }
+        userFilter.register(salvo);
 
         return ResponseEntity.ok(Map.of(
                 "id", salvo.getId(),
@@ -82,4 +119,4 @@ public class AuthController {
                 "role", salvo.getRole(),
                 "message", "Usuário criado com sucesso!"));
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
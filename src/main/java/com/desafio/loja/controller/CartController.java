@@ -1,20 +1,31 @@
 package com.desafio.loja.controller;
 
+import com.desafio.loja.dto.CartDTO;
+import com.desafio.loja.dto.CartItemDTO;
+import com.desafio.loja.dto.CartQuoteDTO;
+import com.desafio.loja.dto.CheckoutRejectionDTO;
 import com.desafio.loja.dto.CheckoutRequestDTO;
 import com.desafio.loja.dto.OrderResponseDTO;
 import com.desafio.loja.model.Order;
+import com.desafio.loja.service.BulkCheckoutService;
+import com.desafio.loja.service.CartService;
+import com.desafio.loja.service.CheckoutOutcome;
 import com.desafio.loja.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Controller REST para operações de carrinho e checkout.
@@ -24,6 +35,9 @@ import java.util.List;
  * </p>
  * <ul>
  * <li>Checkout (finalização de compra)</li>
+ * <li>Cotação do carrinho (disponibilidade e preços, sem gravar)</li>
+ * <li>Checkout em lote (pedidos de distribuidores)</li>
+ * <li>Carrinho no servidor com reserva de estoque</li>
  * <li>Consulta de pedidos</li>
  * <li>Cancelamento de pedidos</li>
  * </ul>
@@ -46,14 +60,21 @@ import java.util.List;
 public class CartController {
 
     private final OrderService orderService;
+    private final BulkCheckoutService bulkCheckoutService;
+    private final CartService cartService;
 
     /**
      * Construtor com injeção de dependência.
      * 
-     * @param orderService serviço de pedidos
+     * @param orderService        serviço de pedidos
+     * @param bulkCheckoutService serviço de checkout em lote
+     * @param cartService         serviço do carrinho no servidor
      */
-    public CartController(OrderService orderService) {
+    public CartController(OrderService orderService, BulkCheckoutService bulkCheckoutService,
+            CartService cartService) {
         this.orderService = orderService;
+        this.bulkCheckoutService = bulkCheckoutService;
+        this.cartService = cartService;
     }
 
     /**
@@ -72,23 +93,187 @@ public class CartController {
      * <b>Possíveis erros:</b>
      * </p>
      * <ul>
-     * <li>400 - Carrinho vazio ou estoque insuficiente</li>
-     * <li>404 - Produto não encontrado</li>
+     * <li>400 - Carrinho vazio ou corpo inválido</li>
+     * <li>409 - Produtos sem estoque ou inexistentes: todas as linhas
+     * indisponíveis em {@link CheckoutRejectionDTO}, nada é gravado</li>
      * </ul>
      * 
+     * @param request     objeto contendo a lista de itens do carrinho
+     * @param httpRequest requisição HTTP (path da rejeição)
+     * @return pedido criado com detalhes dos itens e total, ou a rejeição
+     */
+    @Operation(summary = "Finalizar compra", description = "Processa o checkout do carrinho. Valida o carrinho inteiro antes de gravar e decrementa o estoque automaticamente.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Pedido criado com sucesso",
+                    content = @Content(schema = @Schema(implementation = OrderResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Carrinho vazio ou corpo inválido"),
+            @ApiResponse(responseCode = "409", description = "Linhas sem estoque ou produtos inexistentes (todas listadas em lines)",
+                    content = @Content(schema = @Schema(implementation = CheckoutRejectionDTO.class)))
+    })
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(@Valid @RequestBody CheckoutRequestDTO request,
+            HttpServletRequest httpRequest) {
+        CheckoutOutcome outcome = orderService.checkout(request.items());
+
+        if (outcome instanceof CheckoutOutcome.Rejected rejected) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(CheckoutRejectionDTO.of(rejected.lines(), httpRequest.getRequestURI()));
+        }
+        Order order = ((CheckoutOutcome.Confirmed) outcome).order();
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(OrderResponseDTO.fromEntity(order));
+    }
+
+    /**
+     * Cota o carrinho sem finalizar a compra.
+     * 
+     * <p>
+     * Responde sempre 200 (exceto para corpo inválido): produtos inexistentes
+     * ou sem estoque aparecem no {@code status} de cada linha e em
+     * {@code valid = false}. Nada é reservado nem travado.
+     * </p>
+     * 
      * @param request objeto contendo a lista de itens do carrinho
+     * @return disponibilidade, preço atual e subtotal de cada linha, e o total
+     */
+    @Operation(summary = "Cotar carrinho", description = "Verifica disponibilidade e preços atuais de cada item, sem gravar nada. Use na revisão do carrinho, antes do checkout.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cotação retornada (ver valid e status de cada linha)"),
+            @ApiResponse(responseCode = "400", description = "Corpo inválido (carrinho vazio, quantidade < 1)")
+    })
+    @PostMapping("/quote")
+    public ResponseEntity<CartQuoteDTO> quote(@Valid @RequestBody CheckoutRequestDTO request) {
+        return ResponseEntity.ok(orderService.quote(request.items()));
+    }
+
+    /**
+     * Realiza o checkout de um pedido grande (centenas a milhares de linhas).
+     * 
+     * <p>
+     * Linhas repetidas do mesmo produto são somadas. O pedido inteiro é
+     * validado antes de qualquer escrita e, se rejeitado, responde como o
+     * checkout comum: 409 com todas as linhas indisponíveis em
+     * {@link CheckoutRejectionDTO}. Mantém a semântica tudo ou nada.
+     * </p>
+     * 
+     * @param request     objeto contendo as linhas do pedido
+     * @param httpRequest requisição HTTP (path da rejeição)
+     * @return pedido criado com detalhes dos itens e total, ou a rejeição
+     */
+    @Operation(summary = "Finalizar pedido em lote", description = "Checkout para pedidos grandes: consolida linhas repetidas, valida tudo antes de gravar e reporta todas as faltas de estoque de uma vez.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Pedido criado com sucesso",
+                    content = @Content(schema = @Schema(implementation = OrderResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Pedido vazio, acima do limite de linhas ou corpo inválido"),
+            @ApiResponse(responseCode = "409", description = "Linhas sem estoque ou produtos inexistentes (todas listadas em lines)",
+                    content = @Content(schema = @Schema(implementation = CheckoutRejectionDTO.class)))
+    })
+    @PostMapping("/checkout/bulk")
+    public ResponseEntity<?> bulkCheckout(@Valid @RequestBody CheckoutRequestDTO request,
+            HttpServletRequest httpRequest) {
+        CheckoutOutcome outcome = bulkCheckoutService.checkout(request.items());
+
+        if (outcome instanceof CheckoutOutcome.Rejected rejected) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(CheckoutRejectionDTO.of(rejected.lines(), httpRequest.getRequestURI()));
+        }
+        Order order = ((CheckoutOutcome.Confirmed) outcome).order();
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(OrderResponseDTO.fromEntity(order));
+    }
+
+    /**
+     * Cria um carrinho no servidor.
+     * 
+     * @return carrinho vazio com o seu ID
+     */
+    @Operation(summary = "Criar carrinho", description = "Cria um carrinho no servidor. Os itens incluídos nele reservam estoque por um prazo renovado a cada alteração.")
+    @ApiResponse(responseCode = "201", description = "Carrinho criado")
+    @PostMapping("/carts")
+    public ResponseEntity<CartDTO> createCart() {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(cartService.create());
+    }
+
+    /**
+     * Busca um carrinho do servidor com as reservas vigentes.
+     * 
+     * @param cartId identificador do carrinho
+     * @return carrinho (vazio se não existir ou se as reservas expiraram)
+     */
+    @Operation(summary = "Buscar carrinho", description = "Retorna os itens reservados e o prazo das reservas")
+    @ApiResponse(responseCode = "200", description = "Carrinho retornado")
+    @GetMapping("/carts/{cartId}")
+    public ResponseEntity<CartDTO> findCart(
+            @Parameter(description = "ID do carrinho") @PathVariable UUID cartId) {
+
+        return ResponseEntity.ok(cartService.find(cartId));
+    }
+
+    /**
+     * Define a quantidade de um produto no carrinho, reservando o estoque.
+     * 
+     * <p>
+     * A quantidade informada substitui a anterior; só a diferença é
+     * reservada ou devolvida.
+     * </p>
+     * 
+     * @param cartId identificador do carrinho
+     * @param item   produto e nova quantidade
+     * @return carrinho atualizado
+     */
+    @Operation(summary = "Incluir ou alterar item", description = "Define a quantidade do produto no carrinho e reserva o estoque na hora. Falta de estoque é informada aqui, não no checkout.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Item reservado"),
+            @ApiResponse(responseCode = "400", description = "Estoque insuficiente"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado")
+    })
+    @PutMapping("/carts/{cartId}/items")
+    public ResponseEntity<CartDTO> setCartItem(
+            @Parameter(description = "ID do carrinho") @PathVariable UUID cartId,
+            @Valid @RequestBody CartItemDTO item) {
+
+        return ResponseEntity.ok(cartService.setQuantity(cartId, item.productId(), item.quantity()));
+    }
+
+    /**
+     * Remove um produto do carrinho e devolve a reserva ao estoque.
+     * 
+     * @param cartId    identificador do carrinho
+     * @param productId produto a remover
+     * @return carrinho atualizado
+     */
+    @Operation(summary = "Remover item", description = "Remove o produto do carrinho e devolve a quantidade reservada ao estoque")
+    @ApiResponse(responseCode = "200", description = "Item removido")
+    @DeleteMapping("/carts/{cartId}/items/{productId}")
+    public ResponseEntity<CartDTO> removeCartItem(
+            @Parameter(description = "ID do carrinho") @PathVariable UUID cartId,
+            @Parameter(description = "ID do produto") @PathVariable Long productId) {
+
+        return ResponseEntity.ok(cartService.setQuantity(cartId, productId, 0));
+    }
+
+    /**
+     * Finaliza o carrinho do servidor, convertendo as reservas em pedido.
+     * 
+     * @param cartId identificador do carrinho
      * @return pedido criado com detalhes dos itens e total
      */
-    @Operation(summary = "Finalizar compra", description = "Processa o checkout do carrinho. Valida estoque e decrementa automaticamente.")
+    @Operation(summary = "Finalizar carrinho", description = "Converte as reservas do carrinho em pedido, sem nova verificação de estoque")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Pedido criado com sucesso"),
-            @ApiResponse(responseCode = "400", description = "Estoque insuficiente ou carrinho vazio"),
-            @ApiResponse(responseCode = "404", description = "Produto não encontrado")
+            @ApiResponse(responseCode = "400", description = "Carrinho vazio ou reservas expiradas")
     })
-    @PostMapping("/checkout")
-    public ResponseEntity<OrderResponseDTO> checkout(@Valid @RequestBody CheckoutRequestDTO request) {
-        Order order = orderService.checkout(request.items());
+    @PostMapping("/carts/{cartId}/checkout")
+    public ResponseEntity<OrderResponseDTO> checkoutCart(
+            @Parameter(description = "ID do carrinho") @PathVariable UUID cartId) {
 
+        Order order = orderService.checkoutCart(cartId);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(OrderResponseDTO.fromEntity(order));
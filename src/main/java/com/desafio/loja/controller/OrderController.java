@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.Map;
 
 // Importe suas entidades e repositórios (ajuste se o nome do pacote for diferente)
-import com.desafio.loja.model.Order;
+import com.desafio.loja.dto.OrderResponseDTO;
 import com.desafio.loja.repository.OrderRepository;
 
 @RestController
@@ -26,8 +26,13 @@ public class OrderController {
         return ResponseEntity.ok("Pedido salvo com sucesso!");
     }
 
+    // Retorna DTOs: serializar a entidade expunha o usuário (com senha) e
+    // disparava uma query por item ao percorrer a coleção LAZY
     @GetMapping("/user/{userId}")
-    public List<Order> getOrdersByUser(@PathVariable Long userId) {
-        return orderRepository.findByUser_Id(userId);
+    public List<OrderResponseDTO> getOrdersByUser(@PathVariable Long userId) {
+        return orderRepository.findByUser_Id(userId)
+                .stream()
+                .map(OrderResponseDTO::fromEntity)
+                .toList();
     }
 }
\ No newline at end of file
@@ -1,11 +1,23 @@
 package com.desafio.loja.controller;
 
+import com.desafio.loja.dto.CategoryFacetDTO;
+import com.desafio.loja.dto.ProductBatchDTO;
 import com.desafio.loja.dto.ProductDTO;
+import com.desafio.loja.dto.ProductIdsRequestDTO;
 import com.desafio.loja.dto.ProductResponseDTO;
+import com.desafio.loja.dto.StockDeltaDTO;
+import com.desafio.loja.model.Category;
 import com.desafio.loja.model.Product;
+import com.desafio.loja.service.CatalogSnapshotService;
+import com.desafio.loja.service.CategoryFacetService;
+import com.desafio.loja.service.ProductFilterService;
 import com.desafio.loja.service.ProductService;
+import com.desafio.loja.service.StockStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,11 +26,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products") // ✅ PADRONIZADO COM O FRONTEND
@@ -32,9 +52,18 @@ public class ProductController {
 
     // ========== DEPENDÊNCIA ==========
     private final ProductService productService;
+    private final CatalogSnapshotService catalogSnapshot;
+    private final StockStreamService stockStream;
+    private final CategoryFacetService categoryFacets;
+    private final ProductFilterService productFilter;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CatalogSnapshotService catalogSnapshot,
+            StockStreamService stockStream, CategoryFacetService categoryFacets, ProductFilterService productFilter) {
         this.productService = productService;
+        this.catalogSnapshot = catalogSnapshot;
+        this.stockStream = stockStream;
+        this.categoryFacets = categoryFacets;
+        this.productFilter = productFilter;
     }
 
     // ===================== GET PAGINADO =====================
@@ -62,18 +91,154 @@ public class ProductController {
         return ResponseEntity.ok(result);
     }
 
+    // ===================== GET POR IDS (LOTE) =====================
+    // Carrinho, recibo, lista de desejos: N produtos em uma query, sem 404 por ID
+    @Operation(summary = "Buscar vários produtos por ID",
+            description = "Ex: ?ids=1,2,3. Uma única query; IDs inexistentes voltam em missingIds."
+                    + " Para listas longas, use POST /api/products/batch.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Produtos encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Mais de " + ProductService.MAX_BATCH_IDS + " IDs")
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductBatchDTO> findAllByIds(
+            @Parameter(description = "IDs separados por vírgula") @RequestParam List<Long> ids
+    ) {
+
+        return ResponseEntity.ok(toBatch(ids));
+    }
+
+    @Operation(summary = "Buscar vários produtos por ID (lista longa)",
+            description = "Mesmo resultado de GET /api/products?ids=..., com os IDs no corpo.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Produtos encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Lista vazia ou com mais de " + ProductService.MAX_BATCH_IDS + " IDs")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchDTO> findAllByIds(
+            @Valid @RequestBody ProductIdsRequestDTO request
+    ) {
+
+        return ResponseEntity.ok(toBatch(request.ids()));
+    }
+
     // ===================== GET LISTA (FRONT) =====================
-    @Operation(summary = "Listar todos os produtos")
-    @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso")
+    // Servido do snapshot pré-serializado (JSON/CBOR/Smile x gzip/deflate), com ETag pelo conteúdo
+    @Operation(summary = "Listar todos os produtos",
+            description = "Formato pelo Accept (application/json, application/cbor ou application/x-jackson-smile)"
+                    + " e compressão pelo Accept-Encoding (gzip ou deflate).")
+    @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso",
+            content = {
+                    @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class))),
+                    @Content(mediaType = "application/cbor",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class))),
+                    @Content(mediaType = "application/x-jackson-smile",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class)))
+            })
+    @ApiResponse(responseCode = "304", description = "Catálogo não mudou desde o ETag informado")
+    @ApiResponse(responseCode = "406", description = "Accept sem nenhum dos formatos servidos")
     @GetMapping("/all")
-    public ResponseEntity<List<ProductResponseDTO>> findAllList() {
+    public ResponseEntity<byte[]> findAllList(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
 
-        List<ProductResponseDTO> products = productService.findAll()
-                .stream()
-                .map(ProductResponseDTO::fromEntity)
-                .toList();
+        Optional<CatalogSnapshotService.Format> format = CatalogSnapshotService.negotiateFormat(accept);
+        if (format.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
 
-        return ResponseEntity.ok(products);
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshot.current();
+        CatalogSnapshotService.Encoding encoding = CatalogSnapshotService.negotiate(acceptEncoding);
+        String etag = snapshot.etag(format.get(), encoding);
+
+        boolean notModified = CatalogSnapshotService.matchesIfNoneMatch(ifNoneMatch, etag);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+        if (notModified) {
+            return response.build();
+        }
+        if (encoding.headerValue() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, encoding.headerValue());
+        }
+        return response
+                .contentType(format.get().mediaType())
+                .body(snapshot.body(format.get(), encoding));
+    }
+
+    // ===================== STREAM DE ESTOQUE (SSE) =====================
+    // Lotes coalescidos de estoque/preço; substitui o polling de /all
+    @Operation(summary = "Stream de estoque e preço (SSE)",
+            description = "Eventos 'stock' com os produtos alterados (StockDeltaDTO.Batch) e 'resync' quando o cliente"
+                    + " deve recarregar /api/products/all. Conecte antes de carregar o catálogo.")
+    @ApiResponse(responseCode = "200", description = "Stream aberto",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    schema = @Schema(implementation = StockDeltaDTO.Batch.class)))
+    @ApiResponse(responseCode = "503", description = "Limite de clientes conectados atingido")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+
+        return stockStream.subscribe(lastEventId)
+                .map(emitter -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        // Desliga o buffer de proxies (nginx) para o stream
+                        .header("X-Accel-Buffering", "no")
+                        .body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
+
+    // ===================== FACETAS POR CATEGORIA =====================
+    // Contagens mantidas em memória; sem alterações, não vai ao banco
+    @Operation(summary = "Contagem de produtos por categoria",
+            description = "Produtos e produtos com estoque de cada categoria, para os filtros da vitrine.")
+    @ApiResponse(responseCode = "200", description = "Facetas retornadas com sucesso")
+    @GetMapping("/facets")
+    public ResponseEntity<List<CategoryFacetDTO>> facets() {
+
+        return ResponseEntity.ok(categoryFacets.facets());
+    }
+
+    // ===================== FILTRO (ÍNDICE DE BITMAPS) =====================
+    // Categoria, faixa de preço, estoque e texto combinados no servidor
+    @Operation(summary = "Filtrar produtos",
+            description = "Critérios combinados (E); vários categoryId valem como OU. Ordenação por name ou price."
+                    + " (page + 1) x size até " + ProductFilterService.MAX_WINDOW + ".")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página filtrada"),
+            @ApiResponse(responseCode = "400", description = "Ordenação inválida, página além do limite ou preço com mais de 2 casas decimais")
+    })
+    @GetMapping("/filter")
+    public ResponseEntity<Page<ProductResponseDTO>> filter(
+            @Parameter(description = "IDs de categoria (ver /facets)") @RequestParam(required = false) List<Integer> categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "true: só com estoque; false: só esgotados") @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "Trecho do nome") @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = DEFAULT_PAGE) int page,
+            @RequestParam(defaultValue = DEFAULT_SIZE) int size,
+            @RequestParam(defaultValue = DEFAULT_SORT) String sort
+    ) {
+
+        String[] sortParams = sort.split(",");
+        ProductFilterService.SortField sortField = ProductFilterService.SortField.from(sortParams[0]);
+        boolean descending = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc");
+
+        ProductFilterService.Criteria criteria = new ProductFilterService.Criteria(categoryId, minPrice, maxPrice, inStock, q);
+        Page<ProductResponseDTO> result = productFilter.filter(criteria, sortField, descending, page, size)
+                .map(ProductResponseDTO::fromEntity);
+
+        return ResponseEntity.ok(result);
     }
 
     // ===================== GET BY ID =====================
@@ -162,6 +327,21 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    private ProductBatchDTO toBatch(List<Long> ids) {
+        List<ProductResponseDTO> products = productService.findAllByIds(ids).stream()
+                .map(ProductResponseDTO::fromEntity)
+                .toList();
+
+        Set<Long> found = new HashSet<>();
+        products.forEach(product -> found.add(product.id()));
+        List<Long> missingIds = ids.stream()
+                .filter(id -> id != null && !found.contains(id))
+                .distinct()
+                .toList();
+
+        return new ProductBatchDTO(products, missingIds);
+    }
+
     // ===================== MAPPER =====================
     private Product mapToEntity(ProductDTO dto) {
         Product product = new Product();
@@ -169,7 +349,8 @@ public class ProductController {
         product.setPrice(dto.price());
         product.setStock(dto.stock());
         product.setImage(dto.image());
-        product.setCategory(dto.category());
+        // Só o nome; o ProductService resolve o id no dicionário
+        product.setCategory(new Category(null, dto.category()));
         return product;
     }
 }
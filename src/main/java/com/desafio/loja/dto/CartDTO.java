@@ -0,0 +1,54 @@
+package com.desafio.loja.dto;
+
+import com.desafio.loja.model.StockHold;
+import com.desafio.loja.util.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Record DTO para resposta do carrinho no servidor.
+ * 
+ * @param cartId    ID do carrinho
+ * @param items     Itens reservados, com o preço atual do produto
+ * @param total     Total dos itens
+ * @param expiresAt Prazo das reservas ({@code null} se o carrinho está vazio)
+ */
+@Schema(description = "Carrinho com estoque reservado")
+public record CartDTO(
+        @Schema(description = "ID do carrinho", example = "3f1c2a9e-8b7d-4e55-9a41-2c6d0f1e7b30") UUID cartId,
+
+        @Schema(description = "Itens reservados") List<OrderItemDTO> items,
+
+        @Schema(description = "Total dos itens", example = "299.70") BigDecimal total,
+
+        @Schema(description = "Prazo das reservas; renovado a cada alteração do carrinho") LocalDateTime expiresAt) {
+
+    /**
+     * Factory method: monta o carrinho a partir das reservas (com os
+     * produtos carregados).
+     */
+    public static CartDTO fromHolds(UUID cartId, List<StockHold> holds) {
+        long totalCents = 0;
+        LocalDateTime expiresAt = null;
+        List<OrderItemDTO> items = new ArrayList<>(holds.size());
+        for (StockHold hold : holds) {
+            long subtotalCents = Money.multiply(Money.toCents(hold.getProduct().getPrice()), hold.getQuantity());
+            totalCents = Math.addExact(totalCents, subtotalCents);
+            items.add(new OrderItemDTO(
+                    hold.getProduct().getId(),
+                    hold.getProduct().getName(),
+                    hold.getQuantity(),
+                    hold.getProduct().getPrice(),
+                    Money.fromCents(subtotalCents)));
+            if (expiresAt == null || hold.getExpiresAt().isAfter(expiresAt)) {
+                expiresAt = hold.getExpiresAt();
+            }
+        }
+        return new CartDTO(cartId, items, Money.fromCents(totalCents), expiresAt);
+    }
+}
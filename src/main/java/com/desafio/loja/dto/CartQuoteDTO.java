@@ -0,0 +1,62 @@
+package com.desafio.loja.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Record DTO com a cotação de um carrinho ({@code POST /cart/quote}).
+ * 
+ * <p>
+ * Informativa: nada é reservado, e o checkout valida de novo no banco.
+ * </p>
+ * 
+ * @param valid {@code true} se todas as linhas podem ser compradas agora
+ * @param lines linhas na ordem do carrinho
+ * @param total total das linhas de produtos existentes (o que o checkout
+ *              cobraria)
+ */
+@Schema(description = "Cotação do carrinho: disponibilidade e preços atuais")
+public record CartQuoteDTO(
+        @Schema(description = "Todas as linhas disponíveis", example = "true") boolean valid,
+
+        @Schema(description = "Linhas na ordem do carrinho") List<Line> lines,
+
+        @Schema(description = "Total das linhas de produtos existentes", example = "1409.70") BigDecimal total) {
+
+    /**
+     * Situação de uma linha.
+     */
+    public enum Status {
+        OK, INSUFFICIENT_STOCK, NOT_FOUND
+    }
+
+    /**
+     * Linha cotada.
+     * 
+     * @param productId   ID do produto
+     * @param productName nome do produto ({@code null} se não existir)
+     * @param quantity    quantidade solicitada
+     * @param available   estoque atual ({@code 0} se não existir)
+     * @param unitPrice   preço atual ({@code null} se não existir)
+     * @param subtotal    quantidade x preço ({@code null} se não existir)
+     * @param status      situação da linha
+     */
+    @Schema(description = "Linha do carrinho cotada")
+    public record Line(
+            @Schema(description = "ID do produto", example = "1") Long productId,
+
+            @Schema(description = "Nome do produto", example = "Moura M60GD - 60Ah EFB") String productName,
+
+            @Schema(description = "Quantidade solicitada", example = "2") Integer quantity,
+
+            @Schema(description = "Estoque atual", example = "12") Integer available,
+
+            @Schema(description = "Preço unitário atual", example = "599.90") BigDecimal unitPrice,
+
+            @Schema(description = "Subtotal (quantidade x preço)", example = "1199.80") BigDecimal subtotal,
+
+            @Schema(description = "Situação da linha", example = "OK") Status status) {
+    }
+}
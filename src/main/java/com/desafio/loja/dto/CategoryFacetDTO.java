@@ -0,0 +1,23 @@
+package com.desafio.loja.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Record DTO com as contagens de uma categoria para os filtros da vitrine
+ * ({@code GET /api/products/facets}).
+ * 
+ * @param id       ID da categoria
+ * @param name     nome da categoria
+ * @param products produtos da categoria
+ * @param inStock  produtos da categoria com estoque maior que zero
+ */
+@Schema(description = "Contagem de produtos de uma categoria")
+public record CategoryFacetDTO(
+        @Schema(description = "ID da categoria", example = "1") Integer id,
+
+        @Schema(description = "Nome da categoria", example = "Motos") String name,
+
+        @Schema(description = "Produtos da categoria", example = "40") long products,
+
+        @Schema(description = "Produtos da categoria com estoque", example = "37") long inStock) {
+}
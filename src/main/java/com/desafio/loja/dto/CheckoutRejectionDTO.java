@@ -0,0 +1,90 @@
+package com.desafio.loja.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Record DTO com a rejeição de um checkout ({@code POST /cart/checkout} e
+ * {@code POST /cart/checkout/bulk}).
+ *
+ * <p>
+ * Lista todas as linhas indisponíveis de uma vez, com o estoque atual de
+ * cada produto, para o cliente corrigir o carrinho inteiro em uma única
+ * tentativa. Os campos de {@link ErrorResponseDTO} são mantidos
+ * ({@code message}, {@code validationErrors}), então clientes que só leem o
+ * formato de erro padrão continuam funcionando.
+ * </p>
+ *
+ * @param timestamp        momento da rejeição
+ * @param status           código HTTP
+ * @param error            tipo do erro
+ * @param message          resumo da rejeição
+ * @param path             path da requisição
+ * @param validationErrors uma mensagem legível por linha indisponível
+ * @param lines            linhas indisponíveis, na ordem do carrinho
+ */
+@Schema(description = "Checkout rejeitado: todas as linhas indisponíveis")
+public record CheckoutRejectionDTO(
+        @Schema(description = "Timestamp da rejeição") LocalDateTime timestamp,
+
+        @Schema(description = "Código HTTP", example = "409") int status,
+
+        @Schema(description = "Tipo do erro", example = "Checkout Rejected") String error,
+
+        @Schema(description = "Resumo da rejeição", example = "Checkout rejeitado: 2 linha(s) indisponível(is)") String message,
+
+        @Schema(description = "Path da requisição", example = "/cart/checkout") String path,
+
+        @Schema(description = "Uma mensagem por linha indisponível") List<String> validationErrors,
+
+        @Schema(description = "Linhas indisponíveis, na ordem do carrinho") List<Line> lines) {
+
+    /**
+     * Linha indisponível. Linhas repetidas do mesmo produto aparecem uma vez,
+     * com a quantidade somada.
+     *
+     * @param productId   ID do produto
+     * @param productName nome do produto ({@code null} se não existir)
+     * @param requested   quantidade solicitada
+     * @param available   estoque atual ({@code 0} se não existir)
+     * @param status      {@code INSUFFICIENT_STOCK} ou {@code NOT_FOUND}
+     */
+    @Schema(description = "Linha do carrinho indisponível")
+    public record Line(
+            @Schema(description = "ID do produto", example = "7") Long productId,
+
+            @Schema(description = "Nome do produto", example = "Moura M60GD - 60Ah EFB") String productName,
+
+            @Schema(description = "Quantidade solicitada", example = "120") Integer requested,
+
+            @Schema(description = "Estoque atual", example = "80") Integer available,
+
+            @Schema(description = "Situação da linha", example = "INSUFFICIENT_STOCK") CartQuoteDTO.Status status) {
+
+        String describe() {
+            return status == CartQuoteDTO.Status.NOT_FOUND
+                    ? String.format("Produto %d: não encontrado", productId)
+                    : String.format("Produto %d (%s): solicitado %d, disponível %d",
+                            productId, productName, requested, available);
+        }
+    }
+
+    /**
+     * Monta a resposta de rejeição (HTTP 409).
+     *
+     * @param lines linhas indisponíveis
+     * @param path  path da requisição
+     */
+    public static CheckoutRejectionDTO of(List<Line> lines, String path) {
+        return new CheckoutRejectionDTO(
+                LocalDateTime.now(),
+                409,
+                "Checkout Rejected",
+                String.format("Checkout rejeitado: %d linha(s) indisponível(is)", lines.size()),
+                path,
+                lines.stream().map(Line::describe).toList(),
+                lines);
+    }
+}
@@ -0,0 +1,18 @@
+package com.desafio.loja.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Record DTO para a busca de vários produtos por ID.
+ * 
+ * @param products   produtos encontrados, na ordem dos IDs pedidos
+ * @param missingIds IDs pedidos que não existem
+ */
+@Schema(description = "Produtos encontrados e IDs inexistentes")
+public record ProductBatchDTO(
+        @Schema(description = "Produtos encontrados, na ordem dos IDs pedidos") List<ProductResponseDTO> products,
+
+        @Schema(description = "IDs pedidos que não existem", example = "[42]") List<Long> missingIds) {
+}
@@ -0,0 +1,17 @@
+package com.desafio.loja.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Record DTO para buscar vários produtos por ID ({@code POST /api/products/batch}).
+ * 
+ * @param ids IDs dos produtos
+ */
+@Schema(description = "IDs dos produtos a buscar")
+public record ProductIdsRequestDTO(
+        @Schema(description = "IDs dos produtos", example = "[1, 2, 3]") @NotEmpty(message = "Informe ao menos um ID") List<@NotNull(message = "ID nulo na lista") Long> ids) {
+}
@@ -13,6 +13,8 @@ public record ProductResponseDTO(
         
         @Schema(description = "Categoria do produto", example = "Periféricos") String category, // <--- ADICIONADO
 
+        @Schema(description = "ID da categoria (filtro e facetas)", example = "3") Integer categoryId,
+
         @Schema(description = "Preço do produto", example = "99.90") BigDecimal price,
 
         @Schema(description = "Quantidade em estoque", example = "50") Integer stock,
@@ -26,7 +28,8 @@ public record ProductResponseDTO(
         return new ProductResponseDTO(
                 product.getId(),
                 product.getName(),
-                product.getCategory(), // <--- ADICIONADO AQUI TAMBÉM
+                product.getCategory() != null ? product.getCategory().getName() : null, // <--- ADICIONADO AQUI TAMBÉM
+                product.getCategory() != null ? product.getCategory().getId() : null,
                 product.getPrice(),
                 product.getStock(),
                 product.getImage());
@@ -0,0 +1,39 @@
+package com.desafio.loja.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Record DTO com o estado atual de estoque e preço de um produto, enviado
+ * pelo stream {@code GET /api/products/stream}.
+ * 
+ * @param id    ID do produto
+ * @param stock estoque atual
+ * @param price preço atual
+ */
+@Schema(description = "Estoque e preço atuais de um produto alterado")
+public record StockDeltaDTO(
+        @Schema(description = "ID do produto", example = "1") Long id,
+
+        @Schema(description = "Estoque atual", example = "12") Integer stock,
+
+        @Schema(description = "Preço atual", example = "599.90") BigDecimal price) {
+
+    /**
+     * Lote de alterações de um intervalo de envio (evento SSE {@code stock}).
+     * 
+     * @param seq      número sequencial do lote (também o {@code id} do evento)
+     * @param products produtos com estoque ou preço alterados
+     * @param removed  IDs de produtos excluídos
+     */
+    @Schema(description = "Alterações de estoque e preço acumuladas em um intervalo")
+    public record Batch(
+            @Schema(description = "Número sequencial do lote", example = "42") long seq,
+
+            @Schema(description = "Produtos alterados") List<StockDeltaDTO> products,
+
+            @Schema(description = "IDs de produtos excluídos") List<Long> removed) {
+    }
+}
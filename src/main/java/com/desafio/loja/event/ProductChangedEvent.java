@@ -0,0 +1,55 @@
+package com.desafio.loja.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Evento publicado quando produtos mudam (cadastro, edição, exclusão ou
+ * estoque).
+ * 
+ * <p>
+ * Publicado dentro da transação que fez a alteração; os consumidores usam
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} para reagir
+ * apenas ao que foi de fato gravado.
+ * </p>
+ * 
+ * <p>
+ * <b>Vários nós:</b> eventos locais também são enviados aos demais nós via
+ * PostgreSQL {@code NOTIFY} e chegam lá com {@code remote = true} (sem
+ * transação). {@link Type#RESYNC} indica que notificações podem ter sido
+ * perdidas: todo estado local derivado de produtos deve ser descartado.
+ * </p>
+ * 
+ * @param productIds produtos afetados (vazio em {@link Type#RESYNC})
+ * @param type       tipo de alteração
+ * @param remote     {@code true} se a alteração foi feita por outro nó
+ */
+public record ProductChangedEvent(Set<Long> productIds, Type type, boolean remote) {
+
+    /**
+     * Tipo de alteração.
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED, STOCK, RESYNC
+    }
+
+    public ProductChangedEvent {
+        productIds = Set.copyOf(productIds);
+    }
+
+    public static ProductChangedEvent of(Type type, Long productId) {
+        return new ProductChangedEvent(Set.of(productId), type, false);
+    }
+
+    public static ProductChangedEvent stock(Collection<Long> productIds) {
+        return new ProductChangedEvent(Set.copyOf(productIds), Type.STOCK, false);
+    }
+
+    public static ProductChangedEvent remote(Type type, Collection<Long> productIds) {
+        return new ProductChangedEvent(Set.copyOf(productIds), type, true);
+    }
+
+    public static ProductChangedEvent resync() {
+        return new ProductChangedEvent(Set.of(), Type.RESYNC, true);
+    }
+}
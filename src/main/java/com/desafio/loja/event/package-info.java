@@ -0,0 +1,11 @@
+/**
+ * Pacote de Eventos - Eventos de Domínio
+ * 
+ * Responsabilidades:
+ * - Eventos publicados pelos Services via ApplicationEventPublisher
+ * - Consumidos após o commit (@TransactionalEventListener) por caches e
+ *   snapshots que precisam ser invalidados
+ * - Propagados aos outros nós da API via PostgreSQL NOTIFY
+ *   (ProductChangeNotifier / ProductChangeListener)
+ */
+package com.desafio.loja.event;
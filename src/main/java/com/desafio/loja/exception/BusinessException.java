@@ -6,16 +6,22 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 /**
  * Exceção base para erros de negócio da aplicação.
  * Retorna HTTP 400 (Bad Request) por padrão.
+ *
+ * <p>
+ * Sem stack trace: é uma resposta esperada ao cliente (carrinho vazio,
+ * pedido já cancelado), tratada pelo {@link GlobalExceptionHandler}, que só
+ * registra a mensagem. Capturar a pilha a cada rejeição só custaria CPU.
+ * </p>
  */
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class BusinessException extends RuntimeException {
 
     public BusinessException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public BusinessException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 
 }
@@ -40,7 +40,8 @@ import java.util.List;
  *   └── RuntimeException
  *         └── BusinessException (400 Bad Request)
  *               ├── InvalidValueException (preço negativo)
- *               └── InsufficientStockException (estoque insuficiente)
+ *               ├── InsufficientStockException (estoque insuficiente)
+ *               └── OrderValidationException (pedido em lote com vários erros)
  *         └── ResourceNotFoundException (404 Not Found)
  *   └── MethodArgumentNotValidException (validação de DTO - 400)
  * </pre>
@@ -168,8 +169,10 @@ public class GlobalExceptionHandler {
          * 
          * <h3>Quando é acionado:</h3>
          * <p>
-         * Durante o checkout, quando a quantidade solicitada excede o estoque
-         * disponível.
+         * Ao incluir ou aumentar um item do carrinho no servidor
+         * ({@code PUT /cart/carts/{id}/items}), quando a quantidade solicitada
+         * excede o estoque disponível. O checkout comum não lança exceção: a
+         * rejeição volta como {@code CheckoutRejectionDTO} (409).
          * </p>
          * 
          * <h3>Exemplo de cenário:</h3>
@@ -200,6 +203,38 @@ public class GlobalExceptionHandler {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
 
+        /**
+         * Trata pedidos rejeitados com vários erros de uma vez.
+         * 
+         * <h3>Quando é acionado:</h3>
+         * <p>
+         * No checkout em lote ({@code POST /cart/checkout/bulk}), quando a validação
+         * prévia encontra produtos inexistentes ou linhas sem estoque suficiente.
+         * Todos os problemas são devolvidos em {@code validationErrors}.
+         * </p>
+         * 
+         * @param ex      exceção com a lista de erros do pedido
+         * @param request requisição HTTP
+         * @return resposta com status 400 e lista de erros
+         */
+        @ExceptionHandler(OrderValidationException.class)
+        public ResponseEntity<ErrorResponseDTO> handleOrderValidation(
+                        OrderValidationException ex,
+                        HttpServletRequest request) {
+
+                log.warn("Pedido com {} erro(s) em {}: {}", ex.getErrors().size(), request.getRequestURI(), ex.getErrors());
+
+                ErrorResponseDTO error = new ErrorResponseDTO(
+                                java.time.LocalDateTime.now(),
+                                HttpStatus.BAD_REQUEST.value(),
+                                "Order Validation Error",
+                                ex.getMessage(),
+                                request.getRequestURI(),
+                                ex.getErrors());
+
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
         /**
          * Trata exceções de valor inválido (preço negativo, etc.).
          * 
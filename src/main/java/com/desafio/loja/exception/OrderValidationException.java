@@ -0,0 +1,28 @@
+package com.desafio.loja.exception;
+
+import java.util.List;
+
+/**
+ * Exceção lançada quando um pedido é rejeitado por vários motivos de uma vez
+ * (produtos inexistentes, estoque insuficiente em várias linhas, etc.).
+ * 
+ * <p>
+ * Diferente de {@link InsufficientStockException}, que para no primeiro
+ * problema, carrega a lista completa de erros para que o cliente corrija o
+ * pedido inteiro em uma única tentativa.
+ * </p>
+ */
+public class OrderValidationException extends BusinessException {
+
+    private final List<String> errors;
+
+    public OrderValidationException(String message, List<String> errors) {
+        super(message);
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+}
@@ -6,16 +6,17 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 /**
  * Exceção lançada quando um recurso não é encontrado.
  * Retorna HTTP 404 (Not Found).
+ * Sem stack trace, como {@link BusinessException}.
  */
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class ResourceNotFoundException extends RuntimeException {
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public ResourceNotFoundException(String resourceName, Long id) {
-        super(String.format("%s não encontrado com id: %d", resourceName, id));
+        this(String.format("%s não encontrado com id: %d", resourceName, id));
     }
 
 }
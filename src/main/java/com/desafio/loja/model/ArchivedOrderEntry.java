@@ -0,0 +1,54 @@
+package com.desafio.loja.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade ArchivedOrderEntry - Pedido no arquivo frio
+ * ({@code archive.orders}, migração V5).
+ * 
+ * <p>
+ * Uma linha por pedido arquivado, com o mesmo ID que ele tinha em
+ * {@code orders}. Só a data e o status ficam em colunas; o pedido completo,
+ * com os itens, fica em {@code payload} (JSON comprimido com gzip), lido
+ * apenas quando alguém consulta o pedido.
+ * </p>
+ * 
+ * <p>
+ * Lida e gravada por JDBC ({@code OrderArchiveRepository}, inserts em lote);
+ * a entidade só descreve a tabela para a validação do schema e para o H2 do
+ * perfil {@code querybudget}, que não roda as migrações.
+ * </p>
+ */
+@Entity
+@Table(name = "orders", schema = "archive", indexes = {
+        @Index(name = "idx_archive_orders_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrderEntry {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
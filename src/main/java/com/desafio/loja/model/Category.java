@@ -0,0 +1,33 @@
+package com.desafio.loja.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidade Category - Dicionário de categorias de produto.
+ * 
+ * <p>
+ * Cada nome aparece uma única vez (índice único {@code name}, migração V4);
+ * os produtos guardam só o id inteiro ({@code products.category_id}). Novas
+ * categorias são criadas sob demanda ao salvar um produto
+ * ({@code ProductService}).
+ * </p>
+ */
+@Entity
+@Table(name = "categories", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_categories_name", columnNames = "name")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Category {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String name;
+}
@@ -1,5 +1,6 @@
 package com.desafio.loja.model;
 
+import com.desafio.loja.util.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -28,8 +29,10 @@ public class Order {
     /**
      * Relacionamento com o Usuário dono do pedido.
      * Mapeado para a coluna 'user_id' no banco de dados.
+     * LAZY: nenhuma resposta da API usa o usuário, então não há motivo para
+     * uma query extra por pedido listado.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -39,6 +42,11 @@ public class Order {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal total = BigDecimal.ZERO;
 
+    /**
+     * Total em centavos, mantido incrementalmente por addItem/removeItem.
+     */
+    private transient long totalCents;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -52,30 +60,66 @@ public class Order {
     }
 
     /**
-     * Adiciona um item ao pedido e recalcula o total.
+     * Sincroniza os centavos ao carregar o pedido do banco.
+     */
+    @PostLoad
+    void syncTotalCents() {
+        this.totalCents = total == null ? 0 : Money.toCents(total);
+    }
+
+    /**
+     * Define o total diretamente, mantendo a versão em centavos.
+     */
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+        this.totalCents = total == null ? 0 : Money.toCents(total);
+    }
+
+    /**
+     * Adiciona um item ao pedido e soma seu subtotal ao total (O(1)).
+     *
+     * <p>
+     * Um item montado só com {@code setUnitPrice}/{@code setQuantity} ainda
+     * não tem subtotal: ele é calculado aqui, antes da soma.
+     * </p>
+     *
+     * @throws IllegalArgumentException se o item não tiver subtotal nem
+     *                                  preço e quantidade para calculá-lo
      */
     public void addItem(OrderItem item) {
+        if (item.getSubtotal() == null) {
+            item.calculateSubtotal();
+            if (item.getSubtotal() == null) {
+                throw new IllegalArgumentException("Item sem preço unitário ou quantidade");
+            }
+        }
         items.add(item);
         item.setOrder(this);
-        recalculateTotal();
+        this.totalCents = Math.addExact(totalCents, item.getSubtotalCents());
+        this.total = Money.fromCents(totalCents);
     }
 
     /**
-     * Remove um item do pedido e recalcula o total.
+     * Remove um item do pedido e subtrai seu subtotal do total (O(1)).
      */
     public void removeItem(OrderItem item) {
-        items.remove(item);
+        if (items.remove(item)) {
+            this.totalCents = Math.subtractExact(totalCents, item.getSubtotalCents());
+            this.total = Money.fromCents(totalCents);
+        }
         item.setOrder(null);
-        recalculateTotal();
     }
 
     /**
      * Recalcula o total do pedido somando todos os subtotais.
+     * Necessário apenas se os itens forem alterados sem addItem/removeItem.
      */
     public void recalculateTotal() {
-        this.total = items.stream()
-                .map(OrderItem::getSubtotal)
-                .filter(subtotal -> subtotal != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long sum = 0;
+        for (OrderItem item : items) {
+            sum = Math.addExact(sum, item.getSubtotalCents());
+        }
+        this.totalCents = sum;
+        this.total = Money.fromCents(sum);
     }
 }
\ No newline at end of file
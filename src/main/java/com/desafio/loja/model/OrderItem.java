@@ -1,15 +1,29 @@
 package com.desafio.loja.model;
 
+import com.desafio.loja.util.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * Entidade OrderItem - Representa um item dentro de um pedido.
  * Relaciona o pedido com o produto e a quantidade solicitada.
+ * 
+ * <p>
+ * O subtotal também é mantido em centavos ({@code subtotalCents}, não
+ * persistido) para que o {@link Order} some os itens sem aritmética
+ * {@link BigDecimal}.
+ * </p>
+ * 
+ * <p>
+ * {@code createdAt} repete a data do pedido: {@code order_items} é
+ * particionada por mês junto com {@code orders} (migração V1), e a chave
+ * estrangeira é composta {@code (order_id, created_at)}.
+ * </p>
  */
 @Entity
 @Table(name = "order_items")
@@ -22,8 +36,9 @@ public class OrderItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // FK composta (order_id, created_at) definida na migração V1; o Hibernate não gera a sua
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order order;
 
     @ManyToOne(fetch = FetchType.EAGER)
@@ -40,14 +55,66 @@ public class OrderItem {
     private BigDecimal subtotal;
 
     /**
-     * Calcula o subtotal baseado na quantidade e preço unitário.
+     * Data do pedido (chave de partição), copiada de {@link Order#getCreatedAt()}.
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Subtotal em centavos, sempre sincronizado com {@link #subtotal}.
+     */
+    private transient long subtotalCents;
+
+    /**
+     * Define preço unitário e quantidade, calculando o subtotal em centavos.
+     * 
+     * @param unitPrice preço unitário (no máximo 2 casas decimais)
+     * @param quantity  quantidade
+     */
+    public void applyPricing(BigDecimal unitPrice, int quantity) {
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+        this.subtotalCents = Money.multiply(Money.toCents(unitPrice), quantity);
+        this.subtotal = Money.fromCents(subtotalCents);
+    }
+
+    /**
+     * Define o subtotal diretamente, mantendo a versão em centavos.
+     */
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+        this.subtotalCents = subtotal == null ? 0 : Money.toCents(subtotal);
+    }
+
+    /**
+     * Antes de inserir: calcula o subtotal e herda a data (partição) do pedido.
+     * O {@code @PrePersist} do pedido roda antes da cascata para os itens.
      */
     @PrePersist
+    void prePersist() {
+        calculateSubtotal();
+        if (createdAt == null && order != null) {
+            this.createdAt = order.getCreatedAt();
+        }
+    }
+
+    /**
+     * Calcula o subtotal baseado na quantidade e preço unitário.
+     */
     @PreUpdate
     public void calculateSubtotal() {
         if (unitPrice != null && quantity != null) {
-            this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            this.subtotalCents = Money.multiply(Money.toCents(unitPrice), quantity);
+            this.subtotal = Money.fromCents(subtotalCents);
         }
     }
 
+    /**
+     * Sincroniza os centavos ao carregar o item do banco.
+     */
+    @PostLoad
+    void syncSubtotalCents() {
+        this.subtotalCents = subtotal == null ? 0 : Money.toCents(subtotal);
+    }
+
 }
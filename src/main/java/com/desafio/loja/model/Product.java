@@ -23,6 +23,7 @@ import java.math.BigDecimal;
  * <li>stock: obrigatório, mínimo de 1 item para cadastro inicial</li>
  * <li>image: opcional, armazena imagem em Base64 (TEXT para strings
  * longas)</li>
+ * <li>category: referência ao dicionário {@link Category} (id inteiro)</li>
  * </ul>
  * 
  * <p>
@@ -31,7 +32,8 @@ import java.math.BigDecimal;
  */
 @Entity
 @Table(name = "products", indexes = {
-        @Index(name = "idx_product_name", columnList = "name")
+        @Index(name = "idx_product_name", columnList = "name"),
+        @Index(name = "idx_products_category", columnList = "category_id")
 })
 @Data
 @NoArgsConstructor
@@ -63,5 +65,11 @@ public class Product {
     @Column(columnDefinition = "TEXT")
     private String image;
 
-    private String category;
+    /**
+     * Carregada junto nas listagens ({@code @EntityGraph} em
+     * {@code ProductRepository}), sem uma query por produto.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category;
 }
@@ -0,0 +1,67 @@
+package com.desafio.loja.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidade StockHold - Reserva de estoque de uma linha do carrinho no
+ * servidor.
+ * 
+ * <p>
+ * Enquanto a reserva existe, a quantidade já saiu de
+ * {@link Product#getStock()}: outros clientes não podem comprá-la e o
+ * checkout do carrinho só converte a reserva em pedido, sem decrementar de
+ * novo. Reservas vencidas ({@code expiresAt}) devolvem a quantidade ao
+ * estoque.
+ * </p>
+ * 
+ * <p>
+ * Uma linha por produto em cada carrinho (índice único
+ * {@code (cart_id, product_id)}, migração V3). Todas as reservas de um
+ * carrinho compartilham o mesmo {@code expiresAt}, renovado a cada
+ * alteração do carrinho.
+ * </p>
+ */
+@Entity
+@Table(name = "stock_holds", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stock_holds_cart_product", columnNames = { "cart_id", "product_id" })
+}, indexes = {
+        @Index(name = "idx_stock_holds_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cart_id", nullable = false)
+    private UUID cartId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -5,19 +5,22 @@ import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "tb_users") // Nome da tabela no banco
+@Table(name = "tb_users", indexes = { // Nome da tabela no banco
+        @Index(name = "idx_user_name", columnList = "name", unique = true) // Login por nome sem full scan
+})
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false, length = 50)
     private String name;
-    
+
     @Column(unique = true) // Não deixa cadastrar 2 emails iguais
     private String email;
-    
+
     private String password;
-    
+
     private String role; // Aqui vamos escrever "ADMIN" ou "CLIENTE"
-}
\ No newline at end of file
+}
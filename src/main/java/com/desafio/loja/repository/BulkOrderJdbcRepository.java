@@ -0,0 +1,107 @@
+package com.desafio.loja.repository;
+
+import com.desafio.loja.model.Order;
+import com.desafio.loja.model.OrderItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrita em lote (JDBC batch) para o checkout de pedidos grandes.
+ * 
+ * <p>
+ * <b>Por que JDBC e não JPA?</b> Com {@code GenerationType.IDENTITY} o
+ * Hibernate não agrupa INSERTs em batch, e cada {@code save} passa pelo
+ * contexto de persistência. Para pedidos com milhares de linhas, os
+ * decrementos de estoque e os itens são enviados em lotes de
+ * {@code chunkSize} comandos por ida ao banco.
+ * </p>
+ * 
+ * <p>
+ * Participa da transação corrente: o {@link JdbcTemplate} usa a mesma conexão
+ * da transação JPA aberta pelo serviço.
+ * </p>
+ */
+@Repository
+public class BulkOrderJdbcRepository {
+
+    private static final String DECREMENT_STOCK = "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+
+    private static final String INSERT_ORDER = "INSERT INTO orders (total, created_at, status) VALUES (?, ?, ?)";
+
+    private static final String INSERT_ITEM = "INSERT INTO order_items "
+            + "(order_id, product_id, quantity, unit_price, subtotal, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkOrderJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Decrementa o estoque de vários produtos com UPDATEs condicionais em lote.
+     * 
+     * @param quantities quantidade por ID de produto, já na ordem de locks
+     * @param chunkSize  comandos por lote
+     * @return IDs dos produtos cujo UPDATE não afetou linha (estoque acabou)
+     */
+    public List<Long> decrementStock(Map<Long, Integer> quantities, int chunkSize) {
+        List<Map.Entry<Long, Integer>> entries = List.copyOf(quantities.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(DECREMENT_STOCK, entries, chunkSize, (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+            ps.setInt(3, entry.getValue());
+        });
+
+        List<Long> failed = new ArrayList<>();
+        int index = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count == 0) {
+                    failed.add(entries.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Insere o cabeçalho do pedido e devolve o ID gerado.
+     */
+    public long insertOrder(Order order) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_ORDER, new String[] { "id" });
+            ps.setBigDecimal(1, order.getTotal());
+            ps.setTimestamp(2, Timestamp.valueOf(order.getCreatedAt()));
+            ps.setString(3, order.getStatus().name());
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    /**
+     * Insere os itens do pedido em lotes de {@code chunkSize}.
+     * Os itens herdam a data do pedido (chave de partição).
+     */
+    public void insertItems(Order order, int chunkSize) {
+        long orderId = order.getId();
+        Timestamp createdAt = Timestamp.valueOf(order.getCreatedAt());
+        jdbcTemplate.batchUpdate(INSERT_ITEM, order.getItems(), chunkSize, (ps, item) -> {
+            ps.setLong(1, orderId);
+            ps.setLong(2, item.getProduct().getId());
+            ps.setInt(3, item.getQuantity());
+            ps.setBigDecimal(4, item.getUnitPrice());
+            ps.setBigDecimal(5, item.getSubtotal());
+            ps.setTimestamp(6, createdAt);
+        });
+    }
+}
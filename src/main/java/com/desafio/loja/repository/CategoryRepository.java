@@ -0,0 +1,19 @@
+package com.desafio.loja.repository;
+
+import com.desafio.loja.model.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository para o dicionário de categorias.
+ */
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Integer>, CategoryRepositoryCustom {
+
+    /**
+     * Busca uma categoria pelo nome exato (índice {@code uk_categories_name}).
+     */
+    Optional<Category> findByName(String name);
+}
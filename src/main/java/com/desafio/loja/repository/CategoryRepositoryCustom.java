@@ -0,0 +1,17 @@
+package com.desafio.loja.repository;
+
+/**
+ * Escritas de {@link CategoryRepository} com SQL específico do banco
+ * (implementadas em {@link CategoryRepositoryImpl}).
+ */
+public interface CategoryRepositoryCustom {
+
+    /**
+     * Cria a categoria se ainda não existir. Cadastros simultâneos com a
+     * mesma categoria nova não violam {@code uk_categories_name}: o segundo
+     * INSERT é ignorado. Qualquer outra violação continua sendo erro.
+     *
+     * @param name nome da categoria
+     */
+    void insertIfAbsent(String name);
+}
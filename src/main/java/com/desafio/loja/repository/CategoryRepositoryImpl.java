@@ -0,0 +1,56 @@
+package com.desafio.loja.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fragmento do Spring Data para {@link CategoryRepositoryCustom} (ligado ao
+ * {@link CategoryRepository} pelo sufixo {@code Impl}).
+ *
+ * <p>
+ * <b>PostgreSQL:</b> {@code ON CONFLICT (name) DO NOTHING}, o mesmo da
+ * migração {@code V4__categories.sql}. Com o alvo do conflito, só a
+ * violação de {@code uk_categories_name} é ignorada.
+ * </p>
+ *
+ * <p>
+ * <b>H2</b> (perfil {@code querybudget}): o modo PostgreSQL não aceita o
+ * alvo do conflito, então a inserção é um {@code MERGE ... KEY (name)}, com
+ * o mesmo efeito. O banco é identificado na primeira chamada.
+ * </p>
+ *
+ * <p>
+ * Participa da transação corrente, como {@link BulkOrderJdbcRepository}: a
+ * categoria inserida é vista pela consulta JPA seguinte.
+ * </p>
+ */
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO categories (name) VALUES (?) ON CONFLICT (name) DO NOTHING";
+
+    private static final String MERGE_H2 = "MERGE INTO categories (name) KEY (name) VALUES (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String insertSql;
+
+    public CategoryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertIfAbsent(String name) {
+        jdbcTemplate.update(insertSql(), name);
+    }
+
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            String database = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            sql = "H2".equals(database) ? MERGE_H2 : INSERT_IF_ABSENT;
+            insertSql = sql;
+        }
+        return sql;
+    }
+}
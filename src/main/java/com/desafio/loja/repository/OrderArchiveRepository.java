@@ -0,0 +1,188 @@
+package com.desafio.loja.repository;
+
+import com.desafio.loja.model.ArchivedOrderEntry;
+import com.desafio.loja.model.Order;
+import com.desafio.loja.model.OrderItem;
+import com.desafio.loja.model.OrderStatus;
+import com.desafio.loja.model.Product;
+import com.desafio.loja.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivo frio de pedidos no schema {@code archive} do PostgreSQL (pedidos
+ * antigos e cancelados que saíram das tabelas {@code orders}/{@code order_items}).
+ *
+ * <p>
+ * <b>Formato:</b> uma linha de {@code archive.orders} por pedido
+ * ({@link ArchivedOrderEntry}), indexada pelo ID (chave primária) e pela
+ * data do pedido. O pedido completo, com os itens, vai em {@code payload}:
+ * JSON comprimido com gzip.
+ * </p>
+ *
+ * <p>
+ * <b>Banco compartilhado:</b> o arquivo fica no mesmo banco dos pedidos, não
+ * no disco de um nó. Todos os nós encontram qualquer pedido arquivado, e um
+ * redeploy com disco novo não perde nada. {@link #write} participa da
+ * transação do chamador: gravar no arquivo e apagar das tabelas quentes é
+ * atômico.
+ * </p>
+ *
+ * <p>
+ * JDBC como em {@link BulkOrderJdbcRepository}: os IDs vêm dos pedidos (sem
+ * {@code IDENTITY}) e os inserts vão em lote.
+ * </p>
+ */
+@Repository
+public class OrderArchiveRepository {
+
+    private static final String INSERT = "INSERT INTO archive.orders "
+            + "(id, user_id, created_at, status, payload, archived_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderArchiveRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Indica se o pedido está no arquivo, sem descomprimi-lo.
+     */
+    public boolean contains(Long orderId) {
+        Integer found = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archive.orders WHERE id = ?",
+                Integer.class, orderId);
+        return found != null && found > 0;
+    }
+
+    /**
+     * Quantidade de pedidos arquivados.
+     */
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archive.orders", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Busca um pedido arquivado e descomprime só a linha dele.
+     */
+    public Optional<ArchivedOrder> findById(Long orderId) {
+        List<byte[]> payloads = jdbcTemplate.query("SELECT payload FROM archive.orders WHERE id = ?",
+                (rs, row) -> rs.getBytes(1), orderId);
+        return payloads.stream().findFirst().map(payload -> decompress(orderId, payload));
+    }
+
+    /**
+     * Insere os pedidos no arquivo, em lotes de {@code chunkSize}, na
+     * transação corrente.
+     */
+    public void write(List<ArchivedOrder> orders, int chunkSize) {
+        Timestamp archivedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT, orders, chunkSize, (ps, order) -> {
+            ps.setLong(1, order.id());
+            ps.setObject(2, order.userId());
+            ps.setTimestamp(3, Timestamp.valueOf(order.createdAt()));
+            ps.setString(4, order.status().name());
+            ps.setBytes(5, compress(order));
+            ps.setTimestamp(6, archivedAt);
+        });
+    }
+
+    private byte[] compress(ArchivedOrder order) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (OutputStream gzip = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(gzip, order);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao comprimir o pedido #" + order.id(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private ArchivedOrder decompress(Long orderId, byte[] payload) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(gzip, ArchivedOrder.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o pedido arquivado #" + orderId, e);
+        }
+    }
+
+    /**
+     * Pedido arquivado, com o nome do produto congelado na data do arquivamento.
+     */
+    public record ArchivedOrder(
+            Long id,
+            Long userId,
+            LocalDateTime createdAt,
+            OrderStatus status,
+            BigDecimal total,
+            List<Item> items) {
+
+        public record Item(Long productId, String productName, Integer quantity, BigDecimal unitPrice,
+                BigDecimal subtotal) {
+        }
+
+        public static ArchivedOrder fromEntity(Order order) {
+            return new ArchivedOrder(
+                    order.getId(),
+                    order.getUser() == null ? null : order.getUser().getId(),
+                    order.getCreatedAt(),
+                    order.getStatus(),
+                    order.getTotal(),
+                    order.getItems().stream()
+                            .map(item -> new Item(
+                                    item.getProduct().getId(),
+                                    item.getProduct().getName(),
+                                    item.getQuantity(),
+                                    item.getUnitPrice(),
+                                    item.getSubtotal()))
+                            .toList());
+        }
+
+        /**
+         * Reconstrói o pedido como entidade destacada (somente leitura), para
+         * ser servido pelos mesmos DTOs dos pedidos ativos.
+         */
+        public Order toEntity() {
+            Order order = new Order();
+            order.setId(id);
+            order.setCreatedAt(createdAt);
+            order.setStatus(status);
+            if (userId != null) {
+                User user = new User();
+                user.setId(userId);
+                order.setUser(user);
+            }
+            for (Item archived : items) {
+                Product product = new Product();
+                product.setId(archived.productId());
+                product.setName(archived.productName());
+
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setQuantity(archived.quantity());
+                item.setUnitPrice(archived.unitPrice());
+                item.setSubtotal(archived.subtotal());
+                item.setCreatedAt(createdAt);
+                order.addItem(item);
+            }
+            order.setTotal(total);
+            return order;
+        }
+    }
+}
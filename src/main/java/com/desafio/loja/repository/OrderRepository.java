@@ -2,12 +2,18 @@ package com.desafio.loja.repository;
 
 import com.desafio.loja.model.Order;
 import com.desafio.loja.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,17 +23,28 @@ import java.util.Optional;
  * <p>
  * Utiliza @EntityGraph para evitar problema N+1 ao carregar itens do pedido.
  * </p>
+ * 
+ * <p>
+ * <b>Particionamento:</b> {@code orders} e {@code order_items} são
+ * particionadas por mês em {@code created_at}. Consultas por período filtram
+ * a data nas duas tabelas para que o PostgreSQL descarte as partições fora
+ * do intervalo (partition pruning).
+ * </p>
  */
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     /**
-     * Busca um pedido por ID com itens e produtos carregados em uma única query.
-     * Evita N+1 Select Problem.
+     * Busca os pedidos de um usuário com itens e produtos carregados.
+     * Evita N+1 Select Problem (antes: 1 query por pedido + 1 por item).
      */
-
+    @EntityGraph(attributePaths = { "items", "items.product" })
     List<Order> findByUser_Id(Long userId);
 
+    /**
+     * Busca um pedido por ID com itens e produtos carregados em uma única query.
+     * Evita N+1 Select Problem.
+     */
     @EntityGraph(attributePaths = { "items", "items.product" })
     Optional<Order> findWithItemsById(Long id);
 
@@ -47,14 +64,67 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     /**
      * Busca pedidos criados após uma data específica com itens carregados.
+     * O filtro repetido em {@code i.createdAt} permite o pruning também em
+     * {@code order_items} (todo item tem a data do seu pedido).
      */
-    @EntityGraph(attributePaths = { "items", "items.product" })
-    List<Order> findByCreatedAtAfter(LocalDateTime dateTime);
+    @Query("SELECT o FROM Order o JOIN FETCH o.items i JOIN FETCH i.product "
+            + "WHERE o.createdAt > :dateTime AND i.createdAt > :dateTime ORDER BY o.createdAt DESC")
+    List<Order> findByCreatedAtAfter(@Param("dateTime") LocalDateTime dateTime);
 
     /**
      * Busca pedidos criados entre duas datas com itens carregados.
+     * O filtro repetido em {@code i.createdAt} permite o pruning também em
+     * {@code order_items}.
+     */
+    @Query("SELECT o FROM Order o JOIN FETCH o.items i JOIN FETCH i.product "
+            + "WHERE o.createdAt BETWEEN :start AND :end AND i.createdAt BETWEEN :start AND :end "
+            + "ORDER BY o.createdAt DESC")
+    List<Order> findByCreatedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Marca o pedido como cancelado somente se ainda não estiver cancelado.
+     * 
+     * @return 1 se o status mudou; 0 se o pedido já estava cancelado
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = com.desafio.loja.model.OrderStatus.CANCELLED "
+            + "WHERE o.id = :id AND o.status <> com.desafio.loja.model.OrderStatus.CANCELLED")
+    int markCancelled(@Param("id") Long id);
+
+    /**
+     * IDs dos pedidos a arquivar: todos os anteriores a {@code cutoff} e os
+     * cancelados anteriores a {@code cancelledCutoff}.
+     * 
+     * <p>
+     * Trava as linhas ({@code FOR UPDATE}) até o fim da transação de
+     * arquivamento, para que um cancelamento concorrente não altere um
+     * pedido já copiado para o arquivo.
+     * </p>
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id FROM Order o WHERE o.createdAt < :cutoff "
+            + "OR (o.status = com.desafio.loja.model.OrderStatus.CANCELLED AND o.createdAt < :cancelledCutoff) "
+            + "ORDER BY o.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff,
+            @Param("cancelledCutoff") LocalDateTime cancelledCutoff, Pageable page);
+
+    /**
+     * Busca um lote de pedidos com itens e produtos carregados.
      */
     @EntityGraph(attributePaths = { "items", "items.product" })
-    List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    /**
+     * Remove os itens dos pedidos informados (bancos sem ON DELETE CASCADE).
+     */
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :orderIds")
+    int deleteItemsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 
+    /**
+     * Remove os pedidos informados em um único comando.
+     */
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
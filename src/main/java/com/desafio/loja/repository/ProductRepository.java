@@ -3,18 +3,52 @@ package com.desafio.loja.repository;
 import com.desafio.loja.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository para a entidade Product.
  * Estende JpaRepository para operações CRUD padrão e suporte a paginação.
+ * 
+ * <p>
+ * <b>Categoria:</b> os finders que alimentam {@code ProductResponseDTO}
+ * trazem a {@link com.desafio.loja.model.Category} no mesmo SELECT
+ * ({@code @EntityGraph}), em vez de uma query por categoria.
+ * </p>
  */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll(Sort sort);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findById(Long id);
+
     /**
      * Busca produtos pelo nome (contendo, case-insensitive) - versão paginada.
      * Utiliza o índice idx_product_name para performance.
@@ -23,12 +57,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable configuração de paginação
      * @return página de produtos
      */
+    @EntityGraph(attributePaths = "category")
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
     /**
      * Busca produtos pelo nome (contendo, case-insensitive) - versão lista.
      * Mantido para compatibilidade.
      */
+    @EntityGraph(attributePaths = "category")
     List<Product> findByNameContainingIgnoreCase(String name);
 
     /**
@@ -41,4 +77,64 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     boolean existsByNameIgnoreCase(String name);
 
+    /**
+     * Decrementa o estoque somente se houver unidades suficientes.
+     * 
+     * <p>
+     * Operação atômica no banco: a condição {@code stock >= :quantity} é
+     * avaliada com a linha travada, então dois checkouts concorrentes nunca
+     * vendem as mesmas unidades.
+     * </p>
+     * 
+     * @return 1 se o estoque foi decrementado; 0 se não havia unidades
+     *         suficientes
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Devolve unidades ao estoque (cancelamento de pedido).
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Lê o estoque atual direto do banco, ignorando a entidade em memória.
+     */
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    int findStockById(@Param("id") Long id);
+
+    /**
+     * Campos filtráveis de todos os produtos (carga inicial do índice de
+     * filtros, que também dá as facetas por categoria).
+     */
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.stock AS stock, p.category.id AS categoryId"
+            + " FROM Product p")
+    List<FilterRow> findAllFilterRows();
+
+    /**
+     * Campos filtráveis dos produtos informados (atualização incremental do
+     * índice de filtros).
+     */
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.stock AS stock, p.category.id AS categoryId"
+            + " FROM Product p WHERE p.id IN :ids")
+    List<FilterRow> findFilterRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projeção com os campos usados pelo índice de filtros.
+     */
+    interface FilterRow {
+        Long getId();
+
+        String getName();
+
+        BigDecimal getPrice();
+
+        Integer getStock();
+
+        Integer getCategoryId();
+    }
+
 }
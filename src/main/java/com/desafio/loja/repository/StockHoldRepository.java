@@ -0,0 +1,74 @@
+package com.desafio.loja.repository;
+
+import com.desafio.loja.model.StockHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository para as reservas de estoque dos carrinhos no servidor.
+ * 
+ * <p>
+ * Toda alteração de um carrinho (incluir, remover, expirar, finalizar)
+ * começa por {@link #findByCartIdForUpdate}: as linhas do carrinho ficam
+ * travadas e as operações concorrentes sobre o mesmo carrinho são
+ * serializadas.
+ * </p>
+ */
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    /**
+     * Reservas do carrinho com os produtos carregados (montagem da resposta).
+     */
+    @EntityGraph(attributePaths = { "product" })
+    List<StockHold> findByCartIdOrderByIdAsc(UUID cartId);
+
+    /**
+     * Reservas do carrinho travadas ({@code FOR UPDATE}), em ordem de
+     * produto (mesma ordem de lock dos checkouts).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.cartId = :cartId ORDER BY h.product.id")
+    List<StockHold> findByCartIdForUpdate(@Param("cartId") UUID cartId);
+
+    /**
+     * Renova o prazo de todas as reservas do carrinho.
+     */
+    @Modifying
+    @Query("UPDATE StockHold h SET h.expiresAt = :expiresAt WHERE h.cartId = :cartId")
+    int extendByCartId(@Param("cartId") UUID cartId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Prazo de cada carrinho com reservas (carga da roda de tempo na
+     * subida).
+     */
+    @Query("SELECT h.cartId AS cartId, MAX(h.expiresAt) AS expiresAt FROM StockHold h GROUP BY h.cartId")
+    List<CartDeadline> findCartDeadlines();
+
+    /**
+     * Carrinhos com reservas vencidas até {@code cutoff} (usa o índice
+     * {@code idx_stock_holds_expires_at}).
+     */
+    @Query("SELECT DISTINCT h.cartId FROM StockHold h WHERE h.expiresAt <= :cutoff")
+    List<UUID> findExpiredCartIds(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    /**
+     * Projeção com o prazo de um carrinho.
+     */
+    interface CartDeadline {
+        UUID getCartId();
+
+        LocalDateTime getExpiresAt();
+    }
+}
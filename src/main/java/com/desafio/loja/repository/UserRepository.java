@@ -2,12 +2,25 @@ package com.desafio.loja.repository;
 
 import com.desafio.loja.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     // Método mágico que o Spring cria sozinho para buscar por email
     Optional<User> findByEmail(String email);
 
-    // Busca por nome de usuário (para login)
+    // Busca por nome de usuário (para login) - usa o índice único idx_user_name
     Optional<User> findByName(String name);
-}
\ No newline at end of file
+
+    // Projeção leve (só nome e email) para aquecer o UserExistenceFilter
+    List<UserIdentity> findAllBy();
+
+    /**
+     * Projeção com os campos que identificam um usuário de forma única.
+     */
+    interface UserIdentity {
+        String getName();
+
+        String getEmail();
+    }
+}
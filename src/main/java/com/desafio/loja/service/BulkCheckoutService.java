@@ -0,0 +1,265 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.dto.CartItemDTO;
+import com.desafio.loja.dto.CartQuoteDTO;
+import com.desafio.loja.dto.CheckoutRejectionDTO;
+import com.desafio.loja.event.ProductChangedEvent;
+import com.desafio.loja.exception.BusinessException;
+import com.desafio.loja.exception.OrderValidationException;
+import com.desafio.loja.model.Order;
+import com.desafio.loja.model.OrderItem;
+import com.desafio.loja.model.OrderStatus;
+import com.desafio.loja.model.Product;
+import com.desafio.loja.repository.BulkOrderJdbcRepository;
+import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.util.Timing;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Checkout em lote para pedidos de distribuidores (centenas a milhares de
+ * linhas).
+ * 
+ * <p>
+ * O checkout comum ({@link OrderService#checkout}) faz um
+ * {@code findById} e um UPDATE por linha; com milhares de linhas a transação
+ * segura locks de estoque por segundos. Aqui o pedido é processado em fases:
+ * </p>
+ * <ol>
+ * <li><b>Consolidação:</b> linhas repetidas do mesmo produto são somadas</li>
+ * <li><b>Leitura em blocos:</b> produtos buscados com {@code IN} de até
+ * {@code chunk-size} IDs, sem locks</li>
+ * <li><b>Validação completa:</b> produtos inexistentes e todas as linhas sem
+ * estoque voltam de uma vez em {@link CheckoutOutcome.Rejected}, o mesmo
+ * contrato (HTTP 409) do checkout comum</li>
+ * <li><b>Escrita em lote:</b> decrementos condicionais (em ordem de ID) e
+ * inserção dos itens via JDBC batch</li>
+ * </ol>
+ * 
+ * <p>
+ * <b>Tudo ou nada:</b> tudo roda em uma única transação. Se algum decremento
+ * não afetar linha (estoque vendido por outro pedido entre a validação e a
+ * escrita), a transação é marcada para rollback, o que desfaz todos os
+ * decrementos já aplicados, e as linhas esgotadas voltam como rejeição.
+ * </p>
+ * 
+ * @author Desafio Técnico
+ * @version 1.0
+ * @see BulkOrderJdbcRepository
+ */
+@Service
+public class BulkCheckoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkCheckoutService.class);
+
+    private final ProductRepository productRepository;
+    private final BulkOrderJdbcRepository bulkOrderRepository;
+    private final OrderMetrics metrics;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+    private final int maxLines;
+
+    /**
+     * Construtor com injeção de dependência.
+     * 
+     * @param productRepository   repositório de produtos (leitura em blocos)
+     * @param bulkOrderRepository escrita em lote de estoque e itens
+     * @param metrics             métricas de checkout
+     * @param events              publicador de {@link ProductChangedEvent}
+     * @param chunkSize           IDs por {@code IN} e comandos por lote JDBC
+     * @param maxLines            limite de linhas (após consolidação) por pedido
+     */
+    public BulkCheckoutService(
+            ProductRepository productRepository,
+            BulkOrderJdbcRepository bulkOrderRepository,
+            OrderMetrics metrics,
+            ApplicationEventPublisher events,
+            @Value("${loja.checkout.bulk.chunk-size:500}") int chunkSize,
+            @Value("${loja.checkout.bulk.max-lines:10000}") int maxLines) {
+        this.productRepository = productRepository;
+        this.bulkOrderRepository = bulkOrderRepository;
+        this.metrics = metrics;
+        this.events = events;
+        this.chunkSize = chunkSize;
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Realiza o checkout de um pedido grande.
+     * 
+     * @param cartItems linhas do pedido (podem repetir produtos)
+     * @return pedido confirmado, ou todas as linhas indisponíveis
+     * @throws BusinessException        se o pedido estiver vazio ou exceder o
+     *                                  limite de linhas
+     * @throws OrderValidationException se a soma das linhas de um produto
+     *                                  exceder o limite de quantidade
+     */
+    @Transactional
+    public CheckoutOutcome checkout(List<CartItemDTO> cartItems) {
+        Timer.Sample sample = metrics.start();
+        try {
+            CheckoutOutcome outcome = doCheckout(cartItems);
+            metrics.recordBulkCheckout(sample, outcome);
+            return outcome;
+        } catch (RuntimeException e) {
+            metrics.recordBulkCheckout(sample, e);
+            throw e;
+        }
+    }
+
+    private CheckoutOutcome doCheckout(List<CartItemDTO> cartItems) {
+        if (cartItems == null || cartItems.isEmpty()) {
+            throw new BusinessException("O pedido não pode estar vazio para realizar o checkout");
+        }
+
+        Map<Long, Integer> quantities = mergeLines(cartItems);
+        if (quantities.size() > maxLines) {
+            throw new BusinessException(String.format(
+                    "O pedido excede o limite de %d produtos distintos (recebido: %d)", maxLines, quantities.size()));
+        }
+
+        long started = System.nanoTime();
+        log.debug("Iniciando checkout em lote: {} linhas, {} produtos distintos", cartItems.size(), quantities.size());
+        metrics.recordCartLines(cartItems.size());
+
+        Map<Long, Product> products = loadProducts(quantities.keySet());
+        List<CheckoutRejectionDTO.Line> unavailable = validate(quantities, products);
+        if (!unavailable.isEmpty()) {
+            log.warn("Checkout em lote rejeitado na validação: {} linhas com problema", unavailable.size());
+            return new CheckoutOutcome.Rejected(unavailable);
+        }
+
+        // Ordem fixa de locks (por ID), a mesma do checkout comum e do cancelamento
+        Map<Long, Integer> lockOrder = new TreeMap<>(quantities);
+        List<Long> soldOut = bulkOrderRepository.decrementStock(lockOrder, chunkSize);
+        if (!soldOut.isEmpty()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return soldOutDuringCheckout(soldOut, quantities, products);
+        }
+
+        // Itens seguem a ordem da primeira ocorrência de cada produto no pedido
+        Order order = new Order();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.applyPricing(product.getPrice(), line.getValue());
+            order.addItem(item);
+        }
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setCreatedAt(LocalDateTime.now());
+
+        order.setId(bulkOrderRepository.insertOrder(order));
+        bulkOrderRepository.insertItems(order, chunkSize);
+        events.publishEvent(ProductChangedEvent.stock(quantities.keySet()));
+
+        log.atInfo()
+                .addKeyValue("orderId", order.getId())
+                .addKeyValue("lines", order.getItems().size())
+                .addKeyValue("total", order.getTotal())
+                .addKeyValue("durationMs", Timing.elapsedMillis(started))
+                .log("Checkout em lote concluído. Pedido #{} - {} itens - Total: R$ {}",
+                        order.getId(), order.getItems().size(), order.getTotal());
+
+        return new CheckoutOutcome.Confirmed(order);
+    }
+
+    /**
+     * Soma linhas repetidas do mesmo produto, preservando a ordem da primeira
+     * ocorrência.
+     */
+    private Map<Long, Integer> mergeLines(List<CartItemDTO> cartItems) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (CartItemDTO item : cartItems) {
+            quantities.merge(item.productId(), item.quantity(), (a, b) -> {
+                long sum = (long) a + b;
+                if (sum > Integer.MAX_VALUE) {
+                    errors.add(String.format("Produto %d: quantidade total excede o limite", item.productId()));
+                    return Integer.MAX_VALUE;
+                }
+                return (int) sum;
+            });
+        }
+        if (!errors.isEmpty()) {
+            throw new OrderValidationException("Quantidades inválidas no pedido", errors);
+        }
+        return quantities;
+    }
+
+    /**
+     * Busca os produtos em blocos de {@code chunkSize} IDs (um SELECT com
+     * {@code IN} por bloco).
+     */
+    private Map<Long, Product> loadProducts(Iterable<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        List<Long> chunk = new ArrayList<>(chunkSize);
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == chunkSize) {
+                productRepository.findAllById(chunk).forEach(p -> products.put(p.getId(), p));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            productRepository.findAllById(chunk).forEach(p -> products.put(p.getId(), p));
+        }
+        return products;
+    }
+
+    /**
+     * Valida o pedido inteiro antes de qualquer escrita, acumulando todos os
+     * problemas.
+     *
+     * @return linhas indisponíveis, na ordem da primeira ocorrência de cada
+     *         produto (vazia se o pedido pode ser gravado)
+     */
+    private List<CheckoutRejectionDTO.Line> validate(Map<Long, Integer> quantities, Map<Long, Product> products) {
+        List<CheckoutRejectionDTO.Line> unavailable = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                unavailable.add(new CheckoutRejectionDTO.Line(line.getKey(), null, line.getValue(), 0,
+                        CartQuoteDTO.Status.NOT_FOUND));
+            } else if (product.getStock() < line.getValue()) {
+                unavailable.add(shortfall(product, line.getValue(), product.getStock()));
+            }
+        }
+        return unavailable;
+    }
+
+    /**
+     * Monta a rejeição quando o estoque acabou entre a validação e a escrita.
+     * O rollback da transação desfaz os decrementos já aplicados.
+     */
+    private CheckoutOutcome soldOutDuringCheckout(List<Long> soldOut, Map<Long, Integer> quantities,
+            Map<Long, Product> products) {
+        List<CheckoutRejectionDTO.Line> unavailable = new ArrayList<>(soldOut.size());
+        for (Long id : soldOut) {
+            unavailable.add(shortfall(products.get(id), quantities.get(id), productRepository.findStockById(id)));
+        }
+        log.warn("Checkout em lote rejeitado na escrita: {} produtos esgotados por pedidos concorrentes",
+                soldOut.size());
+        return new CheckoutOutcome.Rejected(unavailable);
+    }
+
+    private CheckoutRejectionDTO.Line shortfall(Product product, int requested, int available) {
+        metrics.recordInsufficientStock(product);
+        return new CheckoutRejectionDTO.Line(product.getId(), product.getName(), requested, available,
+                CartQuoteDTO.Status.INSUFFICIENT_STOCK);
+    }
+}
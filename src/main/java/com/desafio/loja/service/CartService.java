@@ -0,0 +1,286 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.dto.CartDTO;
+import com.desafio.loja.event.ProductChangedEvent;
+import com.desafio.loja.exception.InsufficientStockException;
+import com.desafio.loja.exception.ResourceNotFoundException;
+import com.desafio.loja.model.Product;
+import com.desafio.loja.model.StockHold;
+import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.repository.StockHoldRepository;
+import com.desafio.loja.repository.StockHoldRepository.CartDeadline;
+import com.desafio.loja.util.Money;
+import com.desafio.loja.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Carrinho no servidor com reserva de estoque.
+ *
+ * <p>
+ * <b>Reserva:</b> incluir ou aumentar um item desconta a diferença de
+ * {@code products.stock} na hora (o mesmo UPDATE condicional do checkout) e
+ * grava uma {@link StockHold}. A falta de estoque aparece ao incluir o item,
+ * não no checkout; e o checkout do carrinho
+ * ({@link OrderService#checkoutCart}) só converte as reservas em pedido.
+ * </p>
+ *
+ * <p>
+ * <b>Prazo:</b> toda alteração renova as reservas do carrinho por
+ * {@code loja.cart.hold-ttl}. Carrinho parado devolve a quantidade ao
+ * estoque quando o prazo vence.
+ * </p>
+ *
+ * <p>
+ * <b>Expiração por roda de tempo:</b> cada alteração agenda o carrinho em
+ * uma {@link TimingWheel} em memória (O(1), sem timer por reserva nem
+ * varredura periódica da tabela). Quando o carrinho dispara, as reservas
+ * são travadas e, se o prazo no banco de fato venceu, liberadas; disparos
+ * de carrinhos renovados depois do agendamento não fazem nada. Na subida, a
+ * roda é carregada com os prazos pendentes. Uma varredura rara
+ * ({@code loja.cart.sweep-interval-ms}, pelo índice de
+ * {@code expires_at}) cobre carrinhos agendados em um nó que caiu.
+ * </p>
+ *
+ * <p>
+ * <b>Métricas:</b> {@code loja.cart.holds.expired},
+ * {@code loja.cart.wheel.size}.
+ * </p>
+ *
+ * @author Desafio Técnico
+ * @see StockHold
+ * @see TimingWheel
+ */
+@Service
+public class CartService {
+
+    private static final Logger log = LoggerFactory.getLogger(CartService.class);
+
+    private static final int SWEEP_BATCH = 500;
+
+    private final StockHoldRepository holdRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration holdTtl;
+    private final TimingWheel<UUID> wheel;
+    private final Counter expired;
+
+    public CartService(
+            StockHoldRepository holdRepository,
+            ProductRepository productRepository,
+            ApplicationEventPublisher events,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry registry,
+            @Value("${loja.cart.hold-ttl:15m}") Duration holdTtl,
+            @Value("${loja.cart.wheel-tick-ms:100}") long wheelTickMs,
+            @Value("${loja.cart.wheel-size:512}") int wheelSize) {
+        this.holdRepository = holdRepository;
+        this.productRepository = productRepository;
+        this.events = events;
+        this.transactionTemplate = transactionTemplate;
+        this.holdTtl = holdTtl;
+        this.wheel = new TimingWheel<>(wheelTickMs, wheelSize, System.currentTimeMillis());
+        this.expired = Counter.builder("loja.cart.holds.expired")
+                .description("Reservas de estoque devolvidas por prazo vencido")
+                .register(registry);
+        Gauge.builder("loja.cart.wheel.size", wheel, TimingWheel::size)
+                .description("Prazos de carrinhos agendados na roda de tempo")
+                .register(registry);
+    }
+
+    /**
+     * Cria um carrinho vazio. Nada é gravado até o primeiro item.
+     */
+    public CartDTO create() {
+        return new CartDTO(UUID.randomUUID(), List.of(), Money.fromCents(0), null);
+    }
+
+    /**
+     * Retorna o carrinho com as reservas vigentes.
+     *
+     * <p>
+     * Sempre no primário (sem {@code readOnly}): o cliente lê o carrinho logo
+     * depois de alterá-lo.
+     * </p>
+     */
+    @Transactional
+    public CartDTO find(UUID cartId) {
+        return CartDTO.fromHolds(cartId, holdRepository.findByCartIdOrderByIdAsc(cartId));
+    }
+
+    /**
+     * Define a quantidade de um produto no carrinho, reservando ou devolvendo
+     * a diferença, e renova o prazo do carrinho.
+     *
+     * <p>
+     * <b>Primeira inclusão concorrente:</b> em um carrinho sem reserva do
+     * produto não há linha para travar, então duas requisições simultâneas
+     * podem tentar inserir a mesma reserva. A perdedora esbarra em
+     * {@code uk_stock_holds_cart_product} (o banco só responde depois que a
+     * outra transação confirma), tem a transação desfeita (inclusive a baixa
+     * de estoque) e é repetida uma vez: na nova tentativa a reserva já
+     * existe, é travada e vira atualização.
+     * </p>
+     *
+     * @param cartId    carrinho
+     * @param productId produto
+     * @param quantity  nova quantidade ({@code 0} remove o item)
+     * @return carrinho atualizado
+     * @throws ResourceNotFoundException  se o produto não existir
+     * @throws InsufficientStockException se não houver estoque para o
+     *                                    aumento
+     */
+    public CartDTO setQuantity(UUID cartId, Long productId, int quantity) {
+        try {
+            return transactionTemplate.execute(status -> applyQuantity(cartId, productId, quantity));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Carrinho {}: reserva do produto {} criada em paralelo, repetindo como atualização",
+                    cartId, productId);
+            return transactionTemplate.execute(status -> applyQuantity(cartId, productId, quantity));
+        }
+    }
+
+    private CartDTO applyQuantity(UUID cartId, Long productId, int quantity) {
+        List<StockHold> holds = holdRepository.findByCartIdForUpdate(cartId);
+        Optional<StockHold> existing = holds.stream()
+                .filter(hold -> hold.getProduct().getId().equals(productId))
+                .findFirst();
+        int held = existing.map(StockHold::getQuantity).orElse(0);
+        int delta = quantity - held;
+
+        if (delta > 0 && productRepository.decrementStock(productId, delta) == 0) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Produto", productId));
+            throw new InsufficientStockException(product.getName(), quantity, product.getStock() + held);
+        }
+        if (delta < 0) {
+            productRepository.incrementStock(productId, -delta);
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(holdTtl);
+        if (quantity == 0) {
+            existing.ifPresent(holdRepository::delete);
+        } else {
+            StockHold hold = existing.orElseGet(() -> {
+                StockHold created = new StockHold();
+                created.setCartId(cartId);
+                created.setProduct(productRepository.getReferenceById(productId));
+                return created;
+            });
+            hold.setQuantity(quantity);
+            hold.setExpiresAt(expiresAt);
+            holdRepository.save(hold);
+        }
+        holdRepository.extendByCartId(cartId, expiresAt);
+        schedule(cartId, expiresAt);
+
+        if (delta != 0) {
+            events.publishEvent(ProductChangedEvent.stock(List.of(productId)));
+        }
+        log.debug("Carrinho {}: produto {} x{} (reserva {}{})", cartId, productId, quantity,
+                delta >= 0 ? "+" : "", delta);
+        return CartDTO.fromHolds(cartId, holdRepository.findByCartIdOrderByIdAsc(cartId));
+    }
+
+    /**
+     * Avança a roda de tempo e libera os carrinhos vencidos.
+     */
+    @Scheduled(fixedDelayString = "${loja.cart.wheel-tick-ms:100}")
+    public void tick() {
+        Set<UUID> due = new LinkedHashSet<>();
+        wheel.advance(System.currentTimeMillis(), due::add);
+        due.forEach(this::releaseIfExpired);
+    }
+
+    /**
+     * Varredura de segurança: carrinhos vencidos que nenhuma roda agendou
+     * (ex: alterados em um nó que caiu).
+     */
+    @Scheduled(fixedDelayString = "${loja.cart.sweep-interval-ms:300000}",
+            initialDelayString = "${loja.cart.sweep-interval-ms:300000}")
+    public void sweep() {
+        List<UUID> cartIds;
+        do {
+            cartIds = holdRepository.findExpiredCartIds(LocalDateTime.now(), PageRequest.of(0, SWEEP_BATCH));
+            cartIds.forEach(this::releaseIfExpired);
+        } while (cartIds.size() == SWEEP_BATCH);
+    }
+
+    /**
+     * Carrega na roda os prazos pendentes (reservas feitas antes da subida ou
+     * por outros nós).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPending() {
+        List<CartDeadline> deadlines = holdRepository.findCartDeadlines();
+        for (CartDeadline deadline : deadlines) {
+            schedule(deadline.getCartId(), deadline.getExpiresAt());
+        }
+        if (!deadlines.isEmpty()) {
+            log.info("{} carrinho(s) com reservas agendados para expiração", deadlines.size());
+        }
+    }
+
+    private void schedule(UUID cartId, LocalDateTime expiresAt) {
+        long deadlineMs = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (!wheel.schedule(cartId, deadlineMs)) {
+            // Já vencido: dispara no próximo tique
+            wheel.schedule(cartId, Instant.now().toEpochMilli());
+        }
+    }
+
+    private void releaseIfExpired(UUID cartId) {
+        try {
+            Integer released = transactionTemplate.execute(status -> release(cartId));
+            if (released != null && released > 0) {
+                expired.increment(released);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao liberar as reservas do carrinho {}; nova tentativa na varredura", cartId, e);
+        }
+    }
+
+    private int release(UUID cartId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockHold> holds = holdRepository.findByCartIdForUpdate(cartId).stream()
+                .filter(hold -> !hold.getExpiresAt().isAfter(now))
+                .toList();
+        if (holds.isEmpty()) {
+            // Renovado ou finalizado depois de agendado
+            return 0;
+        }
+        for (StockHold hold : holds) {
+            productRepository.incrementStock(hold.getProduct().getId(), hold.getQuantity());
+        }
+        holdRepository.deleteAllInBatch(holds);
+        events.publishEvent(ProductChangedEvent.stock(holds.stream()
+                .map(hold -> hold.getProduct().getId())
+                .toList()));
+        log.debug("Carrinho {} expirado: {} reserva(s) devolvida(s) ao estoque", cartId, holds.size());
+        return holds.size();
+    }
+}
@@ -0,0 +1,585 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.dto.ProductResponseDTO;
+import com.desafio.loja.event.ProductChangedEvent;
+import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.util.Timing;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot pré-serializado do catálogo completo ({@code GET /api/products/all}).
+ *
+ * <p>
+ * O catálogo é renderizado uma vez por versão: consulta, mapeamento para
+ * {@link ProductResponseDTO}, serialização em JSON, CBOR e Smile e
+ * compressão gzip e deflate de cada formato. As requisições seguintes só
+ * copiam um {@code byte[]} pronto para a resposta, escolhendo o formato pelo
+ * {@code Accept} e a variante pelo {@code Accept-Encoding}.
+ * </p>
+ *
+ * <p>
+ * <b>Formatos binários:</b> CBOR e Smile usam os mesmos {@link ObjectMapper}
+ * dos conversores de {@link com.desafio.loja.config.BinaryFormatsConfig},
+ * então os bytes são os mesmos que o endpoint geraria sem snapshot. Um
+ * {@code Accept} que não inclui nenhum dos três formatos recebe 406.
+ * </p>
+ *
+ * <p>
+ * <b>Invalidação:</b> todo {@link ProductChangedEvent} (CRUD ou estoque)
+ * incrementa a versão após o commit. A reconstrução é preguiçosa: a próxima
+ * requisição a dispara e segue com o snapshot anterior. Para não reconstruir
+ * a cada checkout sob carga, um snapshot desatualizado continua sendo
+ * servido por até {@code loja.catalog.snapshot.max-staleness-ms} após a
+ * última reconstrução. O estoque exibido é apenas informativo: o checkout
+ * sempre valida no banco.
+ * </p>
+ *
+ * <p>
+ * <b>Fora do caminho de leitura:</b> a reconstrução roda em uma thread
+ * própria, uma por vez (<i>single-flight</i>). Quem chega durante a
+ * reconstrução recebe o snapshot anterior sem esperar lock nenhum; só a
+ * primeira requisição depois da subida, sem snapshot algum, aguarda o
+ * resultado.
+ * </p>
+ *
+ * <p>
+ * <b>ETag pelo conteúdo:</b> o ETag é um hash SHA-256 dos bytes do JSON
+ * (produtos em ordem de ID), sem a versão local, com um sufixo por formato e
+ * codificação. Nós diferentes atrás do balanceador geram o mesmo ETag para o
+ * mesmo catálogo, então o {@code If-None-Match} de um cliente vale em
+ * qualquer nó.
+ * </p>
+ *
+ * <p>
+ * <b>Primário:</b> a reconstrução lê pelo repositório, fora de transação
+ * {@code readOnly}, então nunca vai a uma réplica: o evento chega após o
+ * commit no primário, e uma réplica atrasada gravaria dados velhos no
+ * snapshot da nova versão.
+ * </p>
+ *
+ * <p>
+ * Brotli exigiria biblioteca nativa; deflate é a alternativa da JDK.
+ * </p>
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    /**
+     * Codificações servidas, em ordem de preferência.
+     */
+    public enum Encoding {
+        GZIP("gzip"), DEFLATE("deflate"), IDENTITY(null);
+
+        private final String headerValue;
+
+        Encoding(String headerValue) {
+            this.headerValue = headerValue;
+        }
+
+        /**
+         * Valor do cabeçalho {@code Content-Encoding}, ou {@code null} para
+         * identity.
+         */
+        public String headerValue() {
+            return headerValue;
+        }
+    }
+
+    /**
+     * Formatos servidos, em ordem de preferência nos empates.
+     */
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON, ""),
+        CBOR(MediaType.APPLICATION_CBOR, "-cbor"),
+        SMILE(new MediaType("application", "x-jackson-smile"), "-smile");
+
+        private final MediaType mediaType;
+        private final String etagSuffix;
+
+        Format(MediaType mediaType, String etagSuffix) {
+            this.mediaType = mediaType;
+            this.etagSuffix = etagSuffix;
+        }
+
+        /**
+         * Valor do cabeçalho {@code Content-Type}.
+         */
+        public MediaType mediaType() {
+            return mediaType;
+        }
+    }
+
+    /**
+     * Um formato do catálogo nas três codificações.
+     *
+     * @param identity sem compressão
+     * @param gzip     comprimido com gzip
+     * @param deflate  comprimido com deflate (zlib)
+     */
+    public record Rendition(byte[] identity, byte[] gzip, byte[] deflate) {
+
+        /**
+         * Corpo na codificação pedida.
+         */
+        public byte[] body(Encoding encoding) {
+            return switch (encoding) {
+                case GZIP -> gzip;
+                case DEFLATE -> deflate;
+                case IDENTITY -> identity;
+            };
+        }
+    }
+
+    /**
+     * Catálogo renderizado em uma versão.
+     *
+     * @param version    versão local do catálogo (só para a invalidação)
+     * @param etag       ETag base, hash do conteúdo (varia por formato e
+     *                   codificação, ver {@link #etag})
+     * @param renditions catálogo em cada formato
+     * @param builtAt    instante da construção ({@link System#nanoTime()})
+     */
+    public record Snapshot(long version, String etag, Map<Format, Rendition> renditions, long builtAt) {
+
+        /**
+         * Corpo da resposta no formato e na codificação pedidos.
+         */
+        public byte[] body(Format format, Encoding encoding) {
+            return renditions.get(format).body(encoding);
+        }
+
+        /**
+         * ETag forte da variante (representações diferentes, ETags
+         * diferentes). O do JSON sem compressão é o hash puro.
+         */
+        public String etag(Format format, Encoding encoding) {
+            String encodingSuffix = switch (encoding) {
+                case GZIP -> "-gz";
+                case DEFLATE -> "-df";
+                case IDENTITY -> "";
+            };
+            return "\"" + etag + format.etagSuffix + encodingSuffix + "\"";
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final Map<Format, ObjectMapper> mappers;
+    private final long maxStalenessNanos;
+    private final Counter rebuilds;
+
+    private final ExecutorService rebuilder;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<CompletableFuture<Snapshot>> rebuilding = new AtomicReference<>();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Construtor com injeção de dependência.
+     *
+     * @param productRepository fonte do catálogo (primário)
+     * @param objectMapper    mapper do Spring (mesma configuração das demais
+     *                        respostas)
+     * @param cborConverter   conversor CBOR da API (mesmo mapper)
+     * @param smileConverter  conversor Smile da API (mesmo mapper)
+     * @param maxStalenessMs  tempo máximo servindo um snapshot desatualizado
+     * @param meterRegistry   registro de métricas
+     */
+    public CatalogSnapshotService(
+            ProductRepository productRepository,
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter,
+            @Value("${loja.catalog.snapshot.max-staleness-ms:500}") long maxStalenessMs,
+            MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.mappers = new EnumMap<>(Map.of(
+                Format.JSON, objectMapper,
+                Format.CBOR, cborConverter.getObjectMapper(),
+                Format.SMILE, smileConverter.getObjectMapper()));
+        this.maxStalenessNanos = maxStalenessMs * 1_000_000;
+        this.rebuilds = Counter.builder("loja.catalog.snapshot.rebuilds")
+                .description("Reconstruções do snapshot do catálogo")
+                .register(meterRegistry);
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Retorna o snapshot atual. Se estiver desatualizado além do tolerado,
+     * dispara a reconstrução e retorna o anterior mesmo assim.
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        CompletableFuture<Snapshot> rebuild = rebuild();
+        if (current != null) {
+            return current;
+        }
+        try {
+            return rebuild.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Reconstrução em andamento, ou uma nova se não houver.
+     */
+    private CompletableFuture<Snapshot> rebuild() {
+        while (true) {
+            CompletableFuture<Snapshot> running = rebuilding.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<Snapshot> created = new CompletableFuture<>();
+            if (rebuilding.compareAndSet(null, created)) {
+                rebuilder.execute(() -> {
+                    try {
+                        Snapshot built = build(version.get());
+                        snapshot = built;
+                        created.complete(built);
+                    } catch (RuntimeException e) {
+                        log.error("Falha ao reconstruir o snapshot do catálogo", e);
+                        created.completeExceptionally(e);
+                    } finally {
+                        rebuilding.compareAndSet(created, null);
+                    }
+                });
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Marca o snapshot como desatualizado após o commit de qualquer alteração
+     * de produto. {@code fallbackExecution} cobre publicações fora de
+     * transação.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        long newVersion = version.incrementAndGet();
+        log.debug("Catálogo na versão {} ({} de {} produto(s))", newVersion, event.type(),
+                event.productIds().size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Escolhe a codificação a partir do cabeçalho {@code Accept-Encoding}.
+     *
+     * <p>
+     * Vence a de maior {@code q} (padrão 1); {@code *} vale para as
+     * codificações não listadas e {@code q=0} exclui. Identity não listada é
+     * aceita com a menor prioridade. Empates seguem a ordem de
+     * {@link Encoding} (menor corpo primeiro).
+     * </p>
+     */
+    public static Encoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return Encoding.IDENTITY;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double identity = -1;
+        double any = -1;
+        for (String token : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = token.trim().split(";");
+            double q = quality(parts);
+            switch (parts[0].trim()) {
+                case "gzip", "x-gzip" -> gzip = Math.max(gzip, q);
+                case "deflate" -> deflate = Math.max(deflate, q);
+                case "identity" -> identity = Math.max(identity, q);
+                case "*" -> any = Math.max(any, q);
+                default -> {
+                }
+            }
+        }
+        if (gzip < 0) {
+            gzip = any;
+        }
+        if (deflate < 0) {
+            deflate = any;
+        }
+        if (identity < 0) {
+            identity = any >= 0 ? any : Double.MIN_VALUE;
+        }
+
+        Encoding best = Encoding.IDENTITY;
+        double bestQ = 0;
+        for (Encoding encoding : Encoding.values()) {
+            double q = switch (encoding) {
+                case GZIP -> gzip;
+                case DEFLATE -> deflate;
+                case IDENTITY -> identity;
+            };
+            if (q > bestQ) {
+                best = encoding;
+                bestQ = q;
+            }
+        }
+        // Nada aceitável: identity mesmo assim, em vez de 406
+        return best;
+    }
+
+    /**
+     * Escolhe o formato a partir do cabeçalho {@code Accept}.
+     *
+     * <p>
+     * Para cada formato vale o {@code q} do intervalo mais específico que o
+     * inclui ({@code application/cbor}, depois {@code application/*}, depois
+     * o curinga total). Vence o maior {@code q}; no empate, o
+     * intervalo mais específico e depois a ordem de {@link Format}. Sem
+     * cabeçalho, JSON.
+     * </p>
+     *
+     * @param accept valor do cabeçalho (pode ser {@code null})
+     * @return formato escolhido, ou vazio se nenhum é aceitável (406)
+     */
+    public static Optional<Format> negotiateFormat(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Optional.of(Format.JSON);
+        }
+        List<MediaType> ranges;
+        try {
+            ranges = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+
+        Format best = null;
+        double bestQ = 0;
+        int bestSpecificity = -1;
+        for (Format format : Format.values()) {
+            MediaType range = null;
+            for (MediaType candidate : ranges) {
+                if (candidate.includes(format.mediaType())
+                        && (range == null || specificity(candidate) > specificity(range))) {
+                    range = candidate;
+                }
+            }
+            if (range == null || range.getQualityValue() <= 0) {
+                continue;
+            }
+            double q = range.getQualityValue();
+            int specificity = specificity(range);
+            if (best == null || q > bestQ || (q == bestQ && specificity > bestSpecificity)) {
+                best = format;
+                bestQ = q;
+                bestSpecificity = specificity;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Verifica o {@code If-None-Match} contra o ETag da variante servida.
+     *
+     * <p>
+     * O cabeçalho é uma lista de ETags separados por vírgula, ou {@code *}
+     * (qualquer representação atual). A comparação é exata sobre o valor
+     * entre aspas, ignorando o prefixo {@code W/} (comparação fraca, a que
+     * a RFC 9110 define para {@code If-None-Match}). Itens malformados são
+     * ignorados.
+     * </p>
+     *
+     * @param ifNoneMatch valor do cabeçalho (pode ser {@code null})
+     * @param etag        ETag forte, entre aspas
+     * @return {@code true} se o cliente já tem essa representação (304)
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        int length = ifNoneMatch.length();
+        int i = 0;
+        while (i < length) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ',' || Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c == '*') {
+                return true;
+            }
+            if (ifNoneMatch.startsWith("W/", i)) {
+                i += 2;
+            }
+            int end = i < length && ifNoneMatch.charAt(i) == '"' ? ifNoneMatch.indexOf('"', i + 1) : -1;
+            if (end < 0) {
+                // Malformado: pula até o próximo item
+                int comma = ifNoneMatch.indexOf(',', i);
+                if (comma < 0) {
+                    return false;
+                }
+                i = comma + 1;
+                continue;
+            }
+            if (ifNoneMatch.regionMatches(i, etag, 0, etag.length()) && end + 1 - i == etag.length()) {
+                return true;
+            }
+            i = end + 1;
+        }
+        return false;
+    }
+
+    private static int specificity(MediaType range) {
+        if (range.isWildcardType()) {
+            return 0;
+        }
+        return range.isWildcardSubtype() ? 1 : 2;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private boolean isFresh(Snapshot current) {
+        if (current == null) {
+            return false;
+        }
+        return current.version() == version.get()
+                || System.nanoTime() - current.builtAt() < maxStalenessNanos;
+    }
+
+    /**
+     * Lê o catálogo e renderiza as variantes de cada formato.
+     *
+     * <p>
+     * A versão é capturada antes da leitura: se um produto mudar durante a
+     * construção, a versão avança e um acesso após o prazo de tolerância
+     * reconstrói de novo.
+     * </p>
+     */
+    private Snapshot build(long buildVersion) {
+        long started = System.nanoTime();
+        // Ordem fixa: o mesmo catálogo gera os mesmos bytes (e o mesmo ETag) em todo nó
+        List<ProductResponseDTO> products = productRepository.findAll(Sort.by("id"))
+                .stream()
+                .map(ProductResponseDTO::fromEntity)
+                .toList();
+
+        Map<Format, Rendition> renditions = new EnumMap<>(Format.class);
+        for (Format format : Format.values()) {
+            byte[] identity;
+            try {
+                identity = mappers.get(format).writeValueAsBytes(products);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Falha ao serializar o catálogo em " + format, e);
+            }
+            renditions.put(format, new Rendition(identity, gzip(identity), deflate(identity)));
+        }
+
+        Rendition json = renditions.get(Format.JSON);
+        String etag = contentHash(json.identity());
+
+        rebuilds.increment();
+        log.atInfo()
+                .addKeyValue("catalogVersion", buildVersion)
+                .addKeyValue("products", products.size())
+                .addKeyValue("bytes", json.identity().length)
+                .addKeyValue("gzipBytes", json.gzip().length)
+                .addKeyValue("durationMs", Timing.elapsedMillis(started))
+                .log("Snapshot do catálogo v{}: {} produtos, {} bytes (gzip {}, deflate {}; CBOR {}, Smile {})",
+                        buildVersion, products.size(), json.identity().length, json.gzip().length,
+                        json.deflate().length, renditions.get(Format.CBOR).identity().length,
+                        renditions.get(Format.SMILE).identity().length);
+
+        return new Snapshot(buildVersion, etag, Collections.unmodifiableMap(renditions), System.nanoTime());
+    }
+
+    /**
+     * 128 primeiros bits do SHA-256, em hexadecimal.
+     */
+    private static String contentHash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream df = new DeflaterOutputStream(out, deflater)) {
+            df.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+}
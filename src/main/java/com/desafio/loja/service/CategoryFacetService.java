@@ -0,0 +1,72 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.dto.CategoryFacetDTO;
+import com.desafio.loja.model.Category;
+import com.desafio.loja.repository.CategoryRepository;
+import com.desafio.loja.service.ProductFilterService.CategoryCount;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facetas por categoria ({@code GET /api/products/facets}): quantos produtos
+ * cada categoria tem e quantos estão com estoque.
+ *
+ * <p>
+ * <b>Contagens lidas do índice de filtros:</b> o
+ * {@link ProductFilterService} já mantém um bitmap de produtos por categoria
+ * e um de produtos com estoque, atualizados pelos eventos
+ * {@code ProductChangedEvent}. As contagens são a cardinalidade desses
+ * bitmaps ({@link ProductFilterService#categoryCounts()}); não há uma
+ * segunda cópia do catálogo nem uma segunda query por alteração. Aqui fica
+ * só o dicionário de nomes, relido quando aparece uma categoria nova.
+ * </p>
+ *
+ * @author Desafio Técnico
+ * @see CategoryFacetDTO
+ */
+@Service
+public class CategoryFacetService {
+
+    private final ProductFilterService productFilter;
+    private final CategoryRepository categoryRepository;
+
+    // Acessado só com o lock deste serviço
+    private final Map<Integer, String> names = new HashMap<>();
+
+    public CategoryFacetService(ProductFilterService productFilter, CategoryRepository categoryRepository) {
+        this.productFilter = productFilter;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Contagens atuais das categorias com pelo menos um produto, em ordem de
+     * nome.
+     */
+    public synchronized List<CategoryFacetDTO> facets() {
+        List<CategoryCount> counts = productFilter.categoryCounts();
+        if (counts.stream().anyMatch(count -> !names.containsKey(count.categoryId()))) {
+            // Categoria criada depois da última leitura do dicionário
+            loadNames();
+        }
+
+        List<CategoryFacetDTO> facets = new ArrayList<>(counts.size());
+        for (CategoryCount count : counts) {
+            facets.add(new CategoryFacetDTO(count.categoryId(), names.get(count.categoryId()), count.products(),
+                    count.inStock()));
+        }
+        facets.sort(Comparator.comparing(CategoryFacetDTO::name, Comparator.nullsLast(Comparator.naturalOrder())));
+        return facets;
+    }
+
+    private void loadNames() {
+        names.clear();
+        for (Category category : categoryRepository.findAll()) {
+            names.put(category.getId(), category.getName());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.dto.CheckoutRejectionDTO;
+import com.desafio.loja.model.Order;
+
+import java.util.List;
+
+/**
+ * Resultado de {@link OrderService#checkout}: pedido confirmado ou
+ * rejeitado por falta de estoque / produto inexistente.
+ *
+ * <p>
+ * Rejeição é um caso comum (promoções, estoque disputado), não excepcional:
+ * volta como valor, sem exceção, stack trace nem escrita desfeita.
+ * </p>
+ */
+public sealed interface CheckoutOutcome {
+
+    /**
+     * Pedido gravado com status CONFIRMED.
+     */
+    record Confirmed(Order order) implements CheckoutOutcome {
+    }
+
+    /**
+     * Nada foi gravado; todas as linhas indisponíveis conhecidas.
+     */
+    record Rejected(List<CheckoutRejectionDTO.Line> lines) implements CheckoutOutcome {
+
+        public Rejected {
+            lines = List.copyOf(lines);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.model.Order;
+import com.desafio.loja.repository.OrderArchiveRepository;
+import com.desafio.loja.repository.OrderArchiveRepository.ArchivedOrder;
+import com.desafio.loja.repository.OrderRepository;
+import com.desafio.loja.util.Timing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Move pedidos antigos e cancelados das tabelas quentes para o arquivo frio
+ * ({@link OrderArchiveRepository}).
+ *
+ * <p>
+ * <b>Critério:</b> pedidos com mais de {@code loja.archive.max-age-days}
+ * dias, e cancelados com mais de {@code loja.archive.cancelled-max-age-days}
+ * dias. Roda diariamente ({@code loja.archive.cron}) em lotes de
+ * {@code loja.archive.batch-size} pedidos.
+ * </p>
+ *
+ * <p>
+ * <b>Cada lote, em uma transação:</b> trava os pedidos
+ * ({@code FOR UPDATE}), insere-os em {@code archive.orders} e os apaga das
+ * tabelas quentes. Ou tudo é confirmado, ou nada muda.
+ * </p>
+ *
+ * <p>
+ * <b>Vários nós:</b> o agendamento dispara em todos, mas o arquivo está no
+ * banco compartilhado e as travas serializam os lotes: um nó que chega
+ * depois espera o commit do outro e já não encontra os pedidos movidos.
+ * Cada pedido é arquivado uma única vez, e qualquer nó o encontra.
+ * </p>
+ *
+ * <p>
+ * Pedidos arquivados somem das listagens e continuam acessíveis por
+ * {@link OrderService#findById}, que recorre ao arquivo.
+ * </p>
+ *
+ * @author Desafio Técnico
+ * @see OrderArchiveRepository
+ */
+@Service
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private final OrderRepository orderRepository;
+    private final OrderArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archived;
+    private final AtomicLong archiveSize = new AtomicLong();
+    private final boolean enabled;
+    private final int maxAgeDays;
+    private final int cancelledMaxAgeDays;
+    private final int batchSize;
+
+    public OrderArchiver(
+            OrderRepository orderRepository,
+            OrderArchiveRepository archiveRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry registry,
+            @Value("${loja.archive.enabled:true}") boolean enabled,
+            @Value("${loja.archive.max-age-days:365}") int maxAgeDays,
+            @Value("${loja.archive.cancelled-max-age-days:30}") int cancelledMaxAgeDays,
+            @Value("${loja.archive.batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxAgeDays = maxAgeDays;
+        this.cancelledMaxAgeDays = cancelledMaxAgeDays;
+        this.batchSize = batchSize;
+        this.archived = Counter.builder("loja.orders.archived")
+                .description("Pedidos movidos para o arquivo frio")
+                .register(registry);
+        Gauge.builder("loja.orders.archive.size", archiveSize, AtomicLong::get)
+                .description("Pedidos no arquivo frio (lido na subida e a cada execução)")
+                .register(registry);
+    }
+
+    /**
+     * Carrega o tamanho do arquivo para a métrica na subida.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadArchiveSize() {
+        if (enabled) {
+            archiveSize.set(archiveRepository.count());
+        }
+    }
+
+    /**
+     * Arquiva, lote a lote, todos os pedidos que atendem ao critério.
+     *
+     * @return quantidade de pedidos arquivados
+     */
+    @Scheduled(cron = "${loja.archive.cron:0 30 3 * * *}")
+    public int archive() {
+        if (!enabled) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(maxAgeDays);
+        LocalDateTime cancelledCutoff = now.minusDays(cancelledMaxAgeDays);
+
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff, cancelledCutoff));
+            total += moved;
+        } while (moved == batchSize);
+
+        archiveSize.set(archiveRepository.count());
+        if (total > 0) {
+            archived.increment(total);
+            log.atInfo()
+                    .addKeyValue("archivedOrders", total)
+                    .addKeyValue("durationMs", Timing.elapsedMillis(started))
+                    .log("{} pedido(s) movido(s) para o arquivo", total);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff, LocalDateTime cancelledCutoff) {
+        List<Long> ids = orderRepository.findArchivableIds(cutoff, cancelledCutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Order> orders = orderRepository.findWithItemsByIdIn(ids);
+        archiveRepository.write(orders.stream().map(ArchivedOrder::fromEntity).toList(), batchSize);
+
+        orderRepository.deleteItemsByOrderIdIn(ids);
+        orderRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,173 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.dto.CartQuoteDTO;
+import com.desafio.loja.exception.BusinessException;
+import com.desafio.loja.exception.InsufficientStockException;
+import com.desafio.loja.exception.ResourceNotFoundException;
+import com.desafio.loja.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas de negócio do fluxo de pedidos (Micrometer).
+ *
+ * <p>
+ * <b>Métricas publicadas:</b>
+ * </p>
+ * <ul>
+ * <li>{@code loja.checkout} - timer do checkout, tag {@code outcome}</li>
+ * <li>{@code loja.checkout.bulk} - timer do checkout em lote, tag
+ * {@code outcome}</li>
+ * <li>{@code loja.order.cancel} - timer do cancelamento, tag
+ * {@code outcome}</li>
+ * <li>{@code loja.cart.lines} - histograma de linhas por
+ * carrinho</li>
+ * <li>{@code loja.checkout.insufficient.stock} - contador de rejeições por
+ * estoque, tag {@code product}</li>
+ * </ul>
+ *
+ * <p>
+ * Latência de repositórios ({@code spring.data.repository.invocations}) e do
+ * pool Hikari ({@code hikaricp.connections.*}) são publicadas pelo próprio
+ * Spring Boot Actuator.
+ * </p>
+ */
+@Component
+public class OrderMetrics {
+
+    public static final String OUTCOME_CONFIRMED = "confirmed";
+    public static final String OUTCOME_CANCELLED = "cancelled";
+    public static final String OUTCOME_INSUFFICIENT_STOCK = "insufficient_stock";
+    public static final String OUTCOME_NOT_FOUND = "not_found";
+    public static final String OUTCOME_REJECTED = "rejected";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final DistributionSummary cartLines;
+
+    public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.cartLines = DistributionSummary.builder("loja.cart.lines")
+                .description("Quantidade de linhas por carrinho no checkout")
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100, 500, 1000)
+                .register(registry);
+    }
+
+    /**
+     * Inicia a medição de uma operação.
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Finaliza a medição do checkout.
+     *
+     * @param sample  medição iniciada em {@link #start()}
+     * @param failure exceção lançada, ou {@code null} em caso de sucesso
+     */
+    public void recordCheckout(Timer.Sample sample, Throwable failure) {
+        recordCheckout(sample, failure == null ? OUTCOME_CONFIRMED : outcomeOf(failure));
+    }
+
+    /**
+     * Finaliza a medição do checkout que terminou sem exceção.
+     *
+     * @param sample  medição iniciada em {@link #start()}
+     * @param outcome pedido confirmado ou rejeitado
+     */
+    public void recordCheckout(Timer.Sample sample, CheckoutOutcome outcome) {
+        recordCheckout(sample, outcome instanceof CheckoutOutcome.Rejected rejected
+                ? outcomeOf(rejected)
+                : OUTCOME_CONFIRMED);
+    }
+
+    private void recordCheckout(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("loja.checkout")
+                .description("Duração do checkout por resultado")
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    /**
+     * Finaliza a medição do checkout em lote.
+     *
+     * @param sample  medição iniciada em {@link #start()}
+     * @param failure exceção lançada, ou {@code null} em caso de sucesso
+     */
+    public void recordBulkCheckout(Timer.Sample sample, Throwable failure) {
+        recordBulkCheckout(sample, failure == null ? OUTCOME_CONFIRMED : outcomeOf(failure));
+    }
+
+    /**
+     * Finaliza a medição do checkout em lote que terminou sem exceção.
+     *
+     * @param sample  medição iniciada em {@link #start()}
+     * @param outcome pedido confirmado ou rejeitado
+     */
+    public void recordBulkCheckout(Timer.Sample sample, CheckoutOutcome outcome) {
+        recordBulkCheckout(sample, outcome instanceof CheckoutOutcome.Rejected rejected
+                ? outcomeOf(rejected)
+                : OUTCOME_CONFIRMED);
+    }
+
+    private void recordBulkCheckout(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("loja.checkout.bulk")
+                .description("Duração do checkout em lote por resultado")
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    /**
+     * Finaliza a medição do cancelamento.
+     *
+     * @param sample  medição iniciada em {@link #start()}
+     * @param failure exceção lançada, ou {@code null} em caso de sucesso
+     */
+    public void recordCancel(Timer.Sample sample, Throwable failure) {
+        sample.stop(Timer.builder("loja.order.cancel")
+                .description("Duração do cancelamento por resultado")
+                .tag("outcome", failure == null ? OUTCOME_CANCELLED : outcomeOf(failure))
+                .register(registry));
+    }
+
+    /**
+     * Registra o tamanho (em linhas) de um carrinho recebido no checkout.
+     */
+    public void recordCartLines(int lines) {
+        cartLines.record(lines);
+    }
+
+    /**
+     * Conta uma rejeição por estoque insuficiente para o produto.
+     */
+    public void recordInsufficientStock(Product product) {
+        Counter.builder("loja.checkout.insufficient.stock")
+                .description("Itens rejeitados por estoque insuficiente")
+                .tag("product", String.valueOf(product.getId()))
+                .register(registry)
+                .increment();
+    }
+
+    private static String outcomeOf(CheckoutOutcome.Rejected rejected) {
+        boolean insufficient = rejected.lines().stream()
+                .anyMatch(line -> line.status() == CartQuoteDTO.Status.INSUFFICIENT_STOCK);
+        return insufficient ? OUTCOME_INSUFFICIENT_STOCK : OUTCOME_NOT_FOUND;
+    }
+
+    private static String outcomeOf(Throwable failure) {
+        if (failure instanceof InsufficientStockException) {
+            return OUTCOME_INSUFFICIENT_STOCK;
+        }
+        if (failure instanceof ResourceNotFoundException) {
+            return OUTCOME_NOT_FOUND;
+        }
+        if (failure instanceof BusinessException) {
+            return OUTCOME_REJECTED;
+        }
+        return OUTCOME_ERROR;
+    }
+}
@@ -0,0 +1,103 @@
+package com.desafio.loja.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Cria antecipadamente as partições mensais de {@code orders} e
+ * {@code order_items}.
+ *
+ * <p>
+ * Chama a função {@code create_monthly_partitions} (migração
+ * {@code R__create_monthly_partitions.sql}) na subida da aplicação e
+ * diariamente ({@code loja.partitioning.cron}), mantendo
+ * {@code loja.partitioning.months-ahead} meses futuros sempre criados. Assim
+ * nenhum pedido cai na partição DEFAULT, que bloquearia a criação do mês
+ * correspondente.
+ * </p>
+ *
+ * <p>
+ * Só atua se as tabelas forem de fato particionadas (PostgreSQL com as
+ * migrações do Flyway); em H2 ou em um banco criado pelo Hibernate, apenas
+ * registra que não há nada a fazer.
+ * </p>
+ */
+@Service
+public class OrderPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionMaintainer.class);
+
+    private static final List<String> PARTITIONED_TABLES = List.of("orders", "order_items");
+
+    private static final String IS_PARTITIONED = "SELECT count(*) FROM pg_partitioned_table pt "
+            + "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ? AND pg_table_is_visible(c.oid)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    private volatile Boolean partitioned;
+
+    public OrderPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            @Value("${loja.partitioning.enabled:true}") boolean enabled,
+            @Value("${loja.partitioning.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+    }
+
+    /**
+     * Garante as partições do mês atual até {@code months-ahead} meses à
+     * frente.
+     *
+     * @return quantidade de partições criadas
+     */
+    @Scheduled(cron = "${loja.partitioning.cron:0 15 3 * * *}")
+    public int ensurePartitions() {
+        if (!enabled || !isPartitioned()) {
+            return 0;
+        }
+        int created = 0;
+        for (String table : PARTITIONED_TABLES) {
+            Integer count = jdbcTemplate.queryForObject("SELECT create_monthly_partitions(?, ?)", Integer.class,
+                    table, monthsAhead);
+            created += count == null ? 0 : count;
+        }
+        if (created > 0) {
+            log.info("{} partição(ões) mensal(is) criada(s) para orders/order_items", created);
+        }
+        return created;
+    }
+
+    private boolean isPartitioned() {
+        Boolean cached = partitioned;
+        if (cached == null) {
+            try {
+                cached = PARTITIONED_TABLES.stream().allMatch(
+                        table -> jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class, table) > 0);
+            } catch (RuntimeException e) {
+                // Sem catálogo do PostgreSQL (ex: H2)
+                cached = false;
+            }
+            partitioned = cached;
+            if (!cached) {
+                log.info("orders/order_items não são particionadas; manutenção de partições desativada");
+            }
+        }
+        return cached;
+    }
+}
@@ -1,22 +1,40 @@
 package com.desafio.loja.service;
 
 import com.desafio.loja.dto.CartItemDTO;
+import com.desafio.loja.dto.CartQuoteDTO;
+import com.desafio.loja.dto.CheckoutRejectionDTO;
+import com.desafio.loja.event.ProductChangedEvent;
 import com.desafio.loja.exception.BusinessException;
-import com.desafio.loja.exception.InsufficientStockException;
 import com.desafio.loja.exception.ResourceNotFoundException;
 import com.desafio.loja.model.Order;
 import com.desafio.loja.model.OrderItem;
 import com.desafio.loja.model.OrderStatus;
 import com.desafio.loja.model.Product;
+import com.desafio.loja.model.StockHold;
+import com.desafio.loja.repository.OrderArchiveRepository;
 import com.desafio.loja.repository.OrderRepository;
 import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.repository.StockHoldRepository;
+import com.desafio.loja.util.Money;
+import com.desafio.loja.util.Timing;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Serviço responsável pela gestão de pedidos e operações de checkout.
@@ -34,6 +52,14 @@ import java.util.List;
  * (rollback), garantindo consistência dos dados.
  * </p>
  * 
+ * <p>
+ * <b>Concorrência:</b> o estoque nunca é lido, alterado em memória e salvo
+ * (read-modify-write). Decrementos e restaurações usam UPDATEs condicionais
+ * atômicos ({@link ProductRepository#decrementStock}), e as linhas de
+ * produto são sempre travadas na mesma ordem (por ID) para evitar deadlocks
+ * entre checkouts e cancelamentos simultâneos.
+ * </p>
+ * 
  * @author Desafio Técnico
  * @version 1.0
  * @see OrderRepository
@@ -45,7 +71,11 @@ public class OrderService {
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
 
     private final OrderRepository orderRepository;
+    private final OrderArchiveRepository archiveRepository;
     private final ProductRepository productRepository;
+    private final StockHoldRepository holdRepository;
+    private final OrderMetrics metrics;
+    private final ApplicationEventPublisher events;
 
     /**
      * Construtor com injeção de dependência via construtor.
@@ -56,11 +86,22 @@ public class OrderService {
      * </p>
      * 
      * @param orderRepository   repositório para operações de pedidos
+     * @param archiveRepository arquivo frio de pedidos antigos e cancelados
      * @param productRepository repositório para operações de produtos
+     * @param holdRepository    reservas de estoque dos carrinhos no servidor
+     * @param metrics           métricas de checkout e cancelamento
+     * @param events            publicador de {@link ProductChangedEvent}
+     *                          (estoque alterado)
      */
-    public OrderService(OrderRepository orderRepository, ProductRepository productRepository) {
+    public OrderService(OrderRepository orderRepository, OrderArchiveRepository archiveRepository,
+            ProductRepository productRepository, StockHoldRepository holdRepository, OrderMetrics metrics,
+            ApplicationEventPublisher events) {
         this.orderRepository = orderRepository;
+        this.archiveRepository = archiveRepository;
         this.productRepository = productRepository;
+        this.holdRepository = holdRepository;
+        this.metrics = metrics;
+        this.events = events;
     }
 
     /**
@@ -72,8 +113,13 @@ public class OrderService {
      * evitando N+1 selects.
      * </p>
      * 
+     * <p>
+     * Somente leitura: pode ser atendido por uma réplica.
+     * </p>
+     * 
      * @return lista de pedidos ordenada por data de criação (mais recente primeiro)
      */
+    @Transactional(readOnly = true)
     public List<Order> findAll() {
         return orderRepository.findAllWithItems();
     }
@@ -86,12 +132,23 @@ public class OrderService {
      * queries adicionais ao acessar items e products do pedido.
      * </p>
      * 
+     * <p>
+     * Sempre no primário (sem {@code readOnly}): o cliente consulta o pedido
+     * logo após o checkout, e uma réplica atrasada ainda não o teria.
+     * </p>
+     * 
+     * <p>
+     * Pedidos arquivados ({@link OrderArchiver}) são buscados no arquivo frio
+     * quando não estão no banco; a resposta é a mesma, só mais lenta.
+     * </p>
+     * 
      * @param id identificador único do pedido
      * @return o pedido encontrado com todos os itens
      * @throws ResourceNotFoundException se o pedido não existir
      */
     public Order findById(Long id) {
         return orderRepository.findWithItemsById(id)
+                .or(() -> archiveRepository.findById(id).map(OrderArchiveRepository.ArchivedOrder::toEntity))
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido", id));
     }
 
@@ -101,10 +158,63 @@ public class OrderService {
      * @param status status desejado (PENDING, CONFIRMED, CANCELLED)
      * @return lista de pedidos com o status especificado
      */
+    @Transactional(readOnly = true)
     public List<Order> findByStatus(OrderStatus status) {
         return orderRepository.findByStatus(status);
     }
 
+    /**
+     * Cota um carrinho: disponibilidade, preço atual e subtotal de cada
+     * linha, sem gravar nada.
+     * 
+     * <p>
+     * <b>Caminho de leitura:</b> transação {@code readOnly} (pode ser atendida
+     * por uma réplica), uma única query {@code IN} pelos produtos e nenhum
+     * lock. Produto inexistente ou sem estoque vira uma linha com
+     * {@link CartQuoteDTO.Status} em vez de exceção, então a revisão do
+     * carrinho nunca abre a transação de escrita do checkout.
+     * </p>
+     * 
+     * <p>
+     * Linhas repetidas do mesmo produto somam a quantidade na verificação de
+     * estoque, como no checkout. O resultado é informativo: o checkout valida
+     * de novo com o UPDATE condicional.
+     * </p>
+     * 
+     * @param cartItems lista de itens do carrinho (productId e quantity)
+     * @return cotação com uma linha por item, na ordem do carrinho
+     */
+    @Transactional(readOnly = true)
+    public CartQuoteDTO quote(List<CartItemDTO> cartItems) {
+        Map<Long, Integer> requestedByProduct = new HashMap<>();
+        for (CartItemDTO item : cartItems) {
+            requestedByProduct.merge(item.productId(), item.quantity(), Integer::sum);
+        }
+        Map<Long, Product> products = productRepository.findAllById(requestedByProduct.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        boolean valid = true;
+        long totalCents = 0;
+        List<CartQuoteDTO.Line> lines = new ArrayList<>(cartItems.size());
+        for (CartItemDTO item : cartItems) {
+            Product product = products.get(item.productId());
+            if (product == null) {
+                valid = false;
+                lines.add(new CartQuoteDTO.Line(item.productId(), null, item.quantity(), 0, null, null,
+                        CartQuoteDTO.Status.NOT_FOUND));
+                continue;
+            }
+            boolean available = product.getStock() >= requestedByProduct.get(item.productId());
+            valid &= available;
+            long subtotalCents = Money.multiply(Money.toCents(product.getPrice()), item.quantity());
+            totalCents = Math.addExact(totalCents, subtotalCents);
+            lines.add(new CartQuoteDTO.Line(product.getId(), product.getName(), item.quantity(),
+                    product.getStock(), product.getPrice(), Money.fromCents(subtotalCents),
+                    available ? CartQuoteDTO.Status.OK : CartQuoteDTO.Status.INSUFFICIENT_STOCK));
+        }
+        return new CartQuoteDTO(valid, lines, Money.fromCents(totalCents));
+    }
+
     /**
      * Realiza o checkout do carrinho de compras.
      * 
@@ -124,96 +234,235 @@ public class OrderService {
      * </p>
      * <ol>
      * <li>Valida se o carrinho não está vazio (Fail Fast)</li>
-     * <li>Para cada item: busca produto, valida estoque, decrementa estoque</li>
-     * <li>Cria os itens do pedido com preço congelado</li>
+     * <li>Busca todos os produtos em uma única query e valida o carrinho
+     * inteiro antes de qualquer escrita</li>
+     * <li>Em ordem de ID do produto, decrementa o estoque atomicamente</li>
+     * <li>Cria os itens do pedido com preço congelado, na ordem do carrinho</li>
      * <li>Calcula total e salva o pedido como CONFIRMED</li>
      * </ol>
      * 
      * <p>
+     * <b>Rejeição sem exceção:</b> falta de estoque e produto inexistente são
+     * o caso comum em promoções. O carrinho inteiro é validado de uma vez e,
+     * se houver linhas indisponíveis, todas voltam em
+     * {@link CheckoutOutcome.Rejected} sem nenhuma escrita. Se outro checkout
+     * levar as unidades entre a validação e o UPDATE condicional, a transação
+     * é marcada para rollback (desfaz os decrementos já aplicados) e a linha
+     * disputada volta da mesma forma.
+     * </p>
+     * 
+     * <p>
      * <b>Por que congelar o preço?</b> O preço unitário é copiado do produto
      * no momento da compra para que futuras alterações de preço não afetem
      * pedidos já realizados.
      * </p>
      * 
      * @param cartItems lista de itens do carrinho (productId e quantity)
-     * @return pedido criado com status CONFIRMED
-     * @throws BusinessException          se o carrinho estiver vazio
-     * @throws ResourceNotFoundException  se algum produto não existir
-     * @throws InsufficientStockException se algum produto não tiver estoque
-     *                                    suficiente
+     * @return pedido confirmado, ou as linhas indisponíveis
+     * @throws BusinessException se o carrinho estiver vazio
      */
     @Transactional
-    public Order checkout(List<CartItemDTO> cartItems) {
-        log.info("Iniciando checkout com {} itens", cartItems.size());
+    public CheckoutOutcome checkout(List<CartItemDTO> cartItems) {
+        Timer.Sample sample = metrics.start();
+        try {
+            CheckoutOutcome outcome = doCheckout(cartItems);
+            metrics.recordCheckout(sample, outcome);
+            return outcome;
+        } catch (RuntimeException e) {
+            metrics.recordCheckout(sample, e);
+            throw e;
+        }
+    }
 
+    private CheckoutOutcome doCheckout(List<CartItemDTO> cartItems) {
         // Fail Fast: valida carrinho vazio primeiro
         if (cartItems == null || cartItems.isEmpty()) {
             throw new BusinessException("O carrinho não pode estar vazio para realizar o checkout");
         }
 
-        Order order = new Order();
+        long started = System.nanoTime();
+        log.debug("Iniciando checkout com {} itens", cartItems.size());
+        metrics.recordCartLines(cartItems.size());
+
+        // Linhas repetidas do mesmo produto somam na validação, como na cotação
+        Map<Long, Integer> requestedByProduct = new LinkedHashMap<>();
+        for (CartItemDTO item : cartItems) {
+            requestedByProduct.merge(item.productId(), item.quantity(), Integer::sum);
+        }
+        Map<Long, Product> products = productRepository.findAllById(requestedByProduct.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<CheckoutRejectionDTO.Line> unavailable = validate(requestedByProduct, products);
+        if (!unavailable.isEmpty()) {
+            return reject(unavailable);
+        }
 
-        // Processa cada item
+        // Ordem fixa de locks (por produto) evita deadlock entre checkouts concorrentes
+        List<CartItemDTO> lockOrder = cartItems.stream()
+                .sorted(Comparator.comparing(CartItemDTO::productId))
+                .toList();
+
+        Map<CartItemDTO, OrderItem> processed = new IdentityHashMap<>();
+        for (CartItemDTO cartItem : lockOrder) {
+            Product product = products.get(cartItem.productId());
+            // 0 linhas = outro pedido levou as unidades depois da validação
+            if (productRepository.decrementStock(product.getId(), cartItem.quantity()) == 0) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return reject(List.of(unavailableLine(product, requestedByProduct.get(product.getId()),
+                        productRepository.findStockById(product.getId()))));
+            }
+            processed.put(cartItem, orderItem(product, cartItem.quantity()));
+        }
+
+        // Itens do pedido seguem a ordem original do carrinho
+        Order order = new Order();
         for (CartItemDTO cartItem : cartItems) {
-            processCartItem(order, cartItem);
+            order.addItem(processed.get(cartItem));
         }
 
         order.setStatus(OrderStatus.CONFIRMED);
         Order savedOrder = orderRepository.save(order);
+        events.publishEvent(ProductChangedEvent.stock(requestedByProduct.keySet()));
 
-        log.info("Checkout concluído. Pedido #{} - Total: R$ {}",
-                savedOrder.getId(), savedOrder.getTotal());
+        // Pares chave-valor viram campos do JSON no perfil prod (logback-spring.xml)
+        log.atInfo()
+                .addKeyValue("orderId", savedOrder.getId())
+                .addKeyValue("lines", cartItems.size())
+                .addKeyValue("total", savedOrder.getTotal())
+                .addKeyValue("durationMs", Timing.elapsedMillis(started))
+                .log("Checkout concluído. Pedido #{} - Total: R$ {}", savedOrder.getId(), savedOrder.getTotal());
+
+        return new CheckoutOutcome.Confirmed(savedOrder);
+    }
+
+    /**
+     * Finaliza um carrinho do servidor ({@link CartService}), convertendo as
+     * reservas de estoque em pedido.
+     * 
+     * <p>
+     * As quantidades já foram descontadas do estoque quando os itens foram
+     * reservados: aqui não há decremento nem falta de estoque. As reservas
+     * são travadas ({@code FOR UPDATE}) e apagadas na mesma transação do
+     * pedido, então uma expiração concorrente ou encontra o carrinho já
+     * finalizado, ou o libera antes e o checkout falha como carrinho vazio.
+     * Reservas vencidas que ainda não foram liberadas continuam valendo.
+     * </p>
+     * 
+     * <p>
+     * O preço é congelado no momento do checkout, não no da reserva.
+     * </p>
+     * 
+     * @param cartId identificador do carrinho
+     * @return pedido criado com status CONFIRMED
+     * @throws BusinessException se o carrinho estiver vazio ou já tiver
+     *                           expirado
+     */
+    @Transactional
+    public Order checkoutCart(UUID cartId) {
+        Timer.Sample sample = metrics.start();
+        Throwable failure = null;
+        try {
+            return doCheckoutCart(cartId);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.recordCheckout(sample, failure);
+        }
+    }
+
+    private Order doCheckoutCart(UUID cartId) {
+        List<StockHold> holds = holdRepository.findByCartIdForUpdate(cartId);
+        if (holds.isEmpty()) {
+            throw new BusinessException("O carrinho está vazio ou as reservas expiraram");
+        }
+
+        long started = System.nanoTime();
+        metrics.recordCartLines(holds.size());
+        Map<Long, Product> products = productRepository.findAllById(holds.stream()
+                .map(hold -> hold.getProduct().getId())
+                .toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Order order = new Order();
+        for (StockHold hold : holds) {
+            Product product = products.get(hold.getProduct().getId());
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProduct(product);
+            orderItem.applyPricing(product.getPrice(), hold.getQuantity());
+            order.addItem(orderItem);
+        }
+        order.setStatus(OrderStatus.CONFIRMED);
+        Order savedOrder = orderRepository.save(order);
+        holdRepository.deleteAllInBatch(holds);
+
+        log.atInfo()
+                .addKeyValue("orderId", savedOrder.getId())
+                .addKeyValue("cartId", cartId)
+                .addKeyValue("lines", holds.size())
+                .addKeyValue("total", savedOrder.getTotal())
+                .addKeyValue("durationMs", Timing.elapsedMillis(started))
+                .log("Checkout do carrinho concluído. Pedido #{} - Total: R$ {}", savedOrder.getId(),
+                        savedOrder.getTotal());
 
         return savedOrder;
     }
 
     /**
-     * Processa um item individual do carrinho.
+     * Valida o carrinho inteiro com os produtos já carregados, sem locks nem
+     * escrita.
      * 
      * <p>
-     * <b>Responsabilidades:</b>
+     * A leitura pode estar desatualizada: o UPDATE condicional
+     * ({@code UPDATE ... WHERE stock >= :quantity}) decide no banco, com a
+     * linha travada, se ainda há unidades.
      * </p>
-     * <ul>
-     * <li>Buscar o produto no banco</li>
-     * <li>Validar disponibilidade de estoque</li>
-     * <li>Decrementar o estoque do produto</li>
-     * <li>Criar o item do pedido com preço congelado</li>
-     * </ul>
      * 
-     * @param order    pedido ao qual o item será adicionado
-     * @param cartItem dados do item (productId e quantity)
-     * @throws ResourceNotFoundException  se o produto não existir
-     * @throws InsufficientStockException se o estoque for insuficiente
+     * @return linhas indisponíveis, na ordem da primeira ocorrência de cada
+     *         produto (vazia se o carrinho pode ser comprado)
      */
-    private void processCartItem(Order order, CartItemDTO cartItem) {
-        Product product = productRepository.findById(cartItem.productId())
-                .orElseThrow(() -> new ResourceNotFoundException("Produto", cartItem.productId()));
-
-        int requested = cartItem.quantity();
-        int available = product.getStock();
-
-        // Fail Fast: valida estoque antes de prosseguir
-        if (available < requested) {
-            log.warn("Estoque insuficiente: {} (solicitado: {}, disponível: {})",
-                    product.getName(), requested, available);
-            throw new InsufficientStockException(product.getName(), requested, available);
+    private List<CheckoutRejectionDTO.Line> validate(Map<Long, Integer> requestedByProduct,
+            Map<Long, Product> products) {
+        List<CheckoutRejectionDTO.Line> unavailable = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : requestedByProduct.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                unavailable.add(new CheckoutRejectionDTO.Line(line.getKey(), null, line.getValue(), 0,
+                        CartQuoteDTO.Status.NOT_FOUND));
+            } else if (product.getStock() < line.getValue()) {
+                unavailable.add(unavailableLine(product, line.getValue(), product.getStock()));
+            }
         }
+        return unavailable;
+    }
 
-        // Decrementa estoque
-        product.setStock(available - requested);
-        productRepository.save(product);
+    private CheckoutRejectionDTO.Line unavailableLine(Product product, int requested, int available) {
+        metrics.recordInsufficientStock(product);
+        return new CheckoutRejectionDTO.Line(product.getId(), product.getName(), requested, available,
+                CartQuoteDTO.Status.INSUFFICIENT_STOCK);
+    }
+
+    private CheckoutOutcome reject(List<CheckoutRejectionDTO.Line> unavailable) {
+        log.atWarn()
+                .addKeyValue("lines", unavailable.size())
+                .log("Checkout rejeitado: {} linha(s) indisponível(is) {}", unavailable.size(),
+                        unavailable.stream().map(CheckoutRejectionDTO.Line::productId).toList());
+        return new CheckoutOutcome.Rejected(unavailable);
+    }
 
-        // Cria item do pedido com preço congelado
+    /**
+     * Cria o item do pedido com preço congelado.
+     */
+    private OrderItem orderItem(Product product, int quantity) {
         OrderItem orderItem = new OrderItem();
         orderItem.setProduct(product);
-        orderItem.setQuantity(requested);
-        orderItem.setUnitPrice(product.getPrice());
-        orderItem.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(requested)));
-
-        order.addItem(orderItem);
+        orderItem.applyPricing(product.getPrice(), quantity);
 
         log.debug("Item processado: {} x{} = R$ {}",
-                product.getName(), requested, orderItem.getSubtotal());
+                product.getName(), quantity, orderItem.getSubtotal());
+
+        return orderItem;
     }
 
     /**
@@ -232,32 +481,61 @@ public class OrderService {
      * <li>O estoque de cada produto é incrementado com a quantidade do item</li>
      * </ul>
      * 
+     * <p>
+     * <b>Concorrência:</b> a troca de status é um UPDATE condicional
+     * ({@link OrderRepository#markCancelled}); de dois cancelamentos
+     * simultâneos do mesmo pedido, só um restaura o estoque.
+     * </p>
+     * 
      * @param orderId identificador do pedido a ser cancelado
      * @return pedido com status atualizado para CANCELLED
      * @throws ResourceNotFoundException se o pedido não existir
-     * @throws BusinessException         se o pedido já estiver cancelado
+     * @throws BusinessException         se o pedido já estiver cancelado ou
+     *                                   arquivado
      */
     @Transactional
     public Order cancelOrder(Long orderId) {
-        Order order = findById(orderId);
-
-        // Fail Fast: verifica se já está cancelado
-        if (order.getStatus() == OrderStatus.CANCELLED) {
-            throw new BusinessException("O pedido já está cancelado");
+        Timer.Sample sample = metrics.start();
+        Throwable failure = null;
+        try {
+            return doCancelOrder(orderId);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.recordCancel(sample, failure);
         }
+    }
 
-        // Restaura estoque de cada item
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
+    private Order doCancelOrder(Long orderId) {
+        long started = System.nanoTime();
+        Order order = orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> archiveRepository.contains(orderId)
+                        ? new BusinessException("O pedido #" + orderId + " está arquivado e não pode ser cancelado")
+                        : new ResourceNotFoundException("Pedido", orderId));
 
-            log.debug("Estoque restaurado: {} +{}", product.getName(), item.getQuantity());
+        // Fail Fast: verifica se já está cancelado (o UPDATE condicional confirma abaixo)
+        if (order.getStatus() == OrderStatus.CANCELLED || orderRepository.markCancelled(orderId) == 0) {
+            throw new BusinessException("O pedido já está cancelado");
         }
 
+        // Restaura estoque de cada item, na mesma ordem de locks do checkout
+        order.getItems().stream()
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .forEach(item -> {
+                    productRepository.incrementStock(item.getProduct().getId(), item.getQuantity());
+                    log.debug("Estoque restaurado: {} +{}", item.getProduct().getName(), item.getQuantity());
+                });
+
         order.setStatus(OrderStatus.CANCELLED);
-        log.info("Pedido #{} cancelado com sucesso", orderId);
+        events.publishEvent(ProductChangedEvent.stock(order.getItems().stream()
+                .map(item -> item.getProduct().getId())
+                .toList()));
+        log.atInfo()
+                .addKeyValue("orderId", orderId)
+                .addKeyValue("durationMs", Timing.elapsedMillis(started))
+                .log("Pedido #{} cancelado com sucesso", orderId);
 
-        return orderRepository.save(order);
+        return order;
     }
 }
@@ -0,0 +1,216 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Recebe as alterações de produtos feitas por outros nós (PostgreSQL
+ * {@code LISTEN}) e as republica localmente como
+ * {@link ProductChangedEvent} com {@code remote = true}.
+ *
+ * <p>
+ * Os mesmos consumidores dos eventos locais (ex:
+ * {@link CatalogSnapshotService}) invalidam então o seu estado, sem saber
+ * de onde veio a alteração.
+ * </p>
+ *
+ * <p>
+ * <b>Conexão dedicada:</b> o {@code LISTEN} vive enquanto a conexão vive,
+ * então ela é aberta fora do pool Hikari e mantida por uma thread própria.
+ * Se cair, é reaberta com espera crescente (até
+ * {@code loja.cluster.notify.max-backoff-ms}); como as notificações do
+ * intervalo se perderam, cada (re)conexão publica um
+ * {@link ProductChangedEvent.Type#RESYNC}.
+ * </p>
+ *
+ * <p>
+ * <b>Métricas:</b> {@code loja.cluster.notify.received},
+ * {@code loja.cluster.notify.reconnects},
+ * {@code loja.cluster.notify.connected}.
+ * </p>
+ *
+ * @author Desafio Técnico
+ * @see ProductChangeNotifier
+ */
+@Component
+public class ProductChangeListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeListener.class);
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long MIN_BACKOFF_MS = 500;
+
+    private final ProductChangeNotifier notifier;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher events;
+    private final long validationIntervalMs;
+    private final long maxBackoffMs;
+    private final Counter received;
+    private final Counter reconnects;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public ProductChangeListener(
+            ProductChangeNotifier notifier,
+            DataSourceProperties dataSourceProperties,
+            ApplicationEventPublisher events,
+            MeterRegistry registry,
+            @Value("${loja.cluster.notify.validation-interval-ms:10000}") long validationIntervalMs,
+            @Value("${loja.cluster.notify.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.notifier = notifier;
+        this.dataSourceProperties = dataSourceProperties;
+        this.events = events;
+        this.validationIntervalMs = validationIntervalMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.received = Counter.builder("loja.cluster.notify.received")
+                .description("Alterações de produtos recebidas de outros nós")
+                .register(registry);
+        this.reconnects = Counter.builder("loja.cluster.notify.reconnects")
+                .description("Reconexões do LISTEN após queda")
+                .register(registry);
+        Gauge.builder("loja.cluster.notify.connected", this, listener -> listener.connected ? 1 : 0)
+                .description("1 se o LISTEN está ativo")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (!notifier.isEnabled()) {
+            log.info("Notificações entre nós desativadas (requer PostgreSQL e loja.cluster.notify.enabled)");
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listenLoop, "product-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Erro ao fechar a conexão do LISTEN", e);
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        long backoff = MIN_BACKOFF_MS;
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection conn = openConnection()) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + ProductChangeNotifier.CHANNEL);
+                }
+                connected = true;
+                backoff = MIN_BACKOFF_MS;
+                if (reconnecting) {
+                    reconnects.increment();
+                    log.info("LISTEN {} restabelecido; ressincronizando o estado local",
+                            ProductChangeNotifier.CHANNEL);
+                }
+                // Alterações de outros nós enquanto não escutávamos (subida ou queda) foram perdidas
+                events.publishEvent(ProductChangedEvent.resync());
+                poll(conn);
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Conexão do LISTEN {} perdida ({}); nova tentativa em {} ms",
+                        ProductChangeNotifier.CHANNEL, e.getMessage(), backoff);
+            } finally {
+                connected = false;
+                connection = null;
+            }
+            reconnecting = true;
+            sleep(backoff);
+            backoff = Math.min(backoff * 2, maxBackoffMs);
+        }
+    }
+
+    private void poll(Connection conn) throws SQLException {
+        PGConnection pg = conn.unwrap(PGConnection.class);
+        long lastValidation = System.currentTimeMillis();
+        while (running) {
+            PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    handle(notification.getParameter());
+                }
+            }
+            // Detecta conexões mortas sem erro de socket (ex: rede caída em silêncio)
+            if (System.currentTimeMillis() - lastValidation >= validationIntervalMs) {
+                if (!conn.isValid(2)) {
+                    throw new SQLException("conexão inválida");
+                }
+                lastValidation = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        try {
+            ProductChangeNotifier.decode(notifier.nodeId(), payload).ifPresent(event -> {
+                received.increment();
+                log.debug("Alteração remota: {} de {} produto(s)", event.type(), event.productIds().size());
+                events.publishEvent(event);
+            });
+        } catch (IllegalArgumentException e) {
+            log.warn("Notificação ignorada: {}", e.getMessage());
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        String password = dataSourceProperties.determinePassword();
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("ApplicationName", "loja-listener-" + notifier.nodeId());
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
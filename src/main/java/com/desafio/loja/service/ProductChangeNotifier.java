@@ -0,0 +1,135 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Envia as alterações de produtos aos demais nós da API via PostgreSQL
+ * {@code NOTIFY}, sem broker externo.
+ *
+ * <p>
+ * <b>Transacional:</b> o {@code pg_notify} roda na fase
+ * {@code BEFORE_COMMIT}, na mesma conexão da alteração. O PostgreSQL só
+ * entrega a notificação se a transação for confirmada, e no momento do
+ * commit: nenhum nó recebe alteração desfeita por rollback.
+ * </p>
+ *
+ * <p>
+ * <b>Payload</b> (canal {@value #CHANNEL}): {@code nó|TIPO|id,id,...}. O
+ * PostgreSQL limita o payload a 8000 bytes; acima de {@value #MAX_PAYLOAD}
+ * (ex: checkout em lote com milhares de produtos) vai um
+ * {@link ProductChangedEvent.Type#RESYNC}, que invalida tudo nos outros nós.
+ * </p>
+ *
+ * <p>
+ * Ativo só com PostgreSQL e {@code loja.cluster.notify.enabled=true}. A
+ * recepção fica em {@link ProductChangeListener}.
+ * </p>
+ *
+ * @author Desafio Técnico
+ * @see ProductChangeListener
+ */
+@Service
+public class ProductChangeNotifier {
+
+    static final String CHANNEL = "loja_product_changed";
+    static final int MAX_PAYLOAD = 7900;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Counter sent;
+
+    public ProductChangeNotifier(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry registry,
+            @Value("${loja.cluster.notify.enabled:true}") boolean enabled,
+            @Value("${loja.cluster.node-id:}") String nodeId,
+            @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled && datasourceUrl.startsWith("jdbc:postgresql:");
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString().substring(0, 8);
+        this.sent = Counter.builder("loja.cluster.notify.sent")
+                .description("Notificações de alteração de produtos enviadas aos outros nós")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Identificador deste nó; notificações com o mesmo id são ignoradas na
+     * recepção.
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Agenda a notificação para o commit da transação que alterou os
+     * produtos (ou envia na hora, fora de transação). Eventos vindos de
+     * outros nós não são reenviados.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || event.remote()) {
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null,
+                CHANNEL, encode(nodeId, event));
+        sent.increment();
+    }
+
+    static String encode(String nodeId, ProductChangedEvent event) {
+        StringBuilder payload = new StringBuilder(nodeId).append('|').append(event.type()).append('|');
+        int start = payload.length();
+        for (Long id : event.productIds()) {
+            if (payload.length() > start) {
+                payload.append(',');
+            }
+            payload.append(id);
+            if (payload.length() > MAX_PAYLOAD) {
+                return nodeId + '|' + ProductChangedEvent.Type.RESYNC + '|';
+            }
+        }
+        return payload.toString();
+    }
+
+    /**
+     * Decodifica um payload de outro nó.
+     *
+     * @return o evento remoto, ou vazio se o payload veio deste nó
+     */
+    static Optional<ProductChangedEvent> decode(String ownNodeId, String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Payload inválido: " + payload);
+        }
+        if (parts[0].equals(ownNodeId)) {
+            return Optional.empty();
+        }
+        ProductChangedEvent.Type type = ProductChangedEvent.Type.valueOf(parts[1]);
+        if (type == ProductChangedEvent.Type.RESYNC) {
+            return Optional.of(ProductChangedEvent.resync());
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String id : StringUtils.commaDelimitedListToStringArray(parts[2])) {
+            ids.add(Long.valueOf(id));
+        }
+        return Optional.of(ProductChangedEvent.remote(type, ids));
+    }
+}
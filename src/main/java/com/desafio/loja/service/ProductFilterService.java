@@ -0,0 +1,429 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.event.ProductChangedEvent;
+import com.desafio.loja.exception.InvalidValueException;
+import com.desafio.loja.model.Product;
+import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.repository.ProductRepository.FilterRow;
+import com.desafio.loja.util.Money;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Filtro de produtos por vários critérios no servidor
+ * ({@code GET /api/products/filter}): categoria, faixa de preço, estoque e
+ * texto, com ordenação por nome ou preço.
+ *
+ * <p>
+ * <b>Índice de bitmaps:</b> um {@link RoaringBitmap} (comprimido) de IDs de
+ * produto por categoria, por faixa de preço
+ * ({@code loja.filter.price-buckets}) e para "com estoque". Um filtro é a
+ * interseção dos bitmaps dos critérios informados (várias categorias: união
+ * delas); só os produtos que sobram são visitados, para conferir o preço
+ * exato nas faixas da borda e o texto no nome.
+ * </p>
+ *
+ * <p>
+ * <b>Top-K:</b> a página {@code p} de tamanho {@code n} só precisa dos
+ * {@code K = (p + 1) · n} primeiros na ordem pedida. Um heap limitado a K
+ * guarda os melhores durante a varredura (O(m log K) para m candidatos), sem
+ * ordenar todos. Por isso a janela {@code (p + 1) · n} tem teto
+ * ({@value #MAX_WINDOW}); para ir além, o cliente refina o filtro.
+ * </p>
+ *
+ * <p>
+ * <b>Atualização:</b> os eventos {@link ProductChangedEvent} pós-commit
+ * (CRUD de {@link ProductService}, checkout e cancelamento de
+ * {@link OrderService}, reservas, outros nós) só marcam os produtos; a
+ * consulta seguinte relê os marcados em uma query e os move de bitmap. O
+ * catálogo inteiro só é lido na primeira consulta e a cada
+ * {@link ProductChangedEvent.Type#RESYNC}. Os produtos da página são
+ * carregados do banco (uma query), com estoque e preço atuais.
+ * </p>
+ *
+ * <p>
+ * <b>Facetas:</b> {@link CategoryFacetService} lê as contagens por
+ * categoria direto dos bitmaps ({@link #categoryCounts()}).
+ * </p>
+ *
+ * <p>
+ * <b>Métricas:</b> {@code loja.filter.index.products}.
+ * </p>
+ *
+ * @author Desafio Técnico
+ */
+@Service
+public class ProductFilterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFilterService.class);
+
+    /** Máximo de {@code (página + 1) · tamanho} de uma consulta. */
+    public static final int MAX_WINDOW = 1000;
+
+    /**
+     * Campos de ordenação.
+     */
+    public enum SortField {
+        NAME, PRICE;
+
+        /**
+         * @throws InvalidValueException se o campo não for suportado
+         */
+        public static SortField from(String value) {
+            for (SortField field : values()) {
+                if (field.name().equalsIgnoreCase(value)) {
+                    return field;
+                }
+            }
+            throw new InvalidValueException("Ordenação não suportada: '" + value + "'. Use name ou price");
+        }
+    }
+
+    /**
+     * Critérios do filtro; {@code null} (ou vazio) ignora o critério.
+     *
+     * @param categoryIds categorias aceitas (qualquer uma delas)
+     * @param minPrice    preço mínimo, inclusivo
+     * @param maxPrice    preço máximo, inclusivo
+     * @param inStock     {@code true}: só com estoque; {@code false}: só
+     *                    esgotados
+     * @param text        trecho do nome (sem diferenciar maiúsculas)
+     */
+    public record Criteria(Collection<Integer> categoryIds, BigDecimal minPrice, BigDecimal maxPrice,
+            Boolean inStock, String text) {
+    }
+
+    /**
+     * Produtos de uma categoria no índice.
+     *
+     * @param categoryId ID da categoria
+     * @param products   produtos da categoria
+     * @param inStock    produtos da categoria com estoque
+     */
+    public record CategoryCount(int categoryId, long products, long inStock) {
+    }
+
+    private final ProductRepository productRepository;
+    // Limites das faixas de preço em centavos, crescentes: faixa i = [bounds[i-1], bounds[i])
+    private final long[] bucketBounds;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Começa pendente: a primeira consulta carrega tudo
+    private final AtomicBoolean resyncPending = new AtomicBoolean(true);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Acessados só com o lock: leitura nas consultas, escrita nas atualizações
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final Map<Integer, RoaringBitmap> byCategory = new HashMap<>();
+    private final RoaringBitmap[] byPriceBucket;
+
+    public ProductFilterService(
+            ProductRepository productRepository,
+            MeterRegistry registry,
+            @Value("${loja.filter.price-buckets:100,250,500,1000,2500}") List<BigDecimal> priceBuckets) {
+        this.productRepository = productRepository;
+        this.bucketBounds = priceBuckets.stream().mapToLong(Money::toCents).toArray();
+        for (int i = 1; i < bucketBounds.length; i++) {
+            if (bucketBounds[i] <= bucketBounds[i - 1]) {
+                throw new IllegalArgumentException("loja.filter.price-buckets deve ser crescente: " + priceBuckets);
+            }
+        }
+        this.byPriceBucket = new RoaringBitmap[bucketBounds.length + 1];
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new RoaringBitmap();
+        }
+        Gauge.builder("loja.filter.index.products", this, ProductFilterService::indexedProducts)
+                .description("Produtos no índice de filtros")
+                .register(registry);
+    }
+
+    /**
+     * Marca os produtos alterados para a próxima consulta.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.RESYNC) {
+            resyncPending.set(true);
+        } else if (!resyncPending.get()) {
+            dirty.addAll(event.productIds());
+        }
+    }
+
+    /**
+     * Filtra, ordena e pagina os produtos.
+     *
+     * @param criteria   critérios do filtro
+     * @param sortField  campo de ordenação (empates pelo ID)
+     * @param descending ordem decrescente
+     * @param page       página (a partir de 0)
+     * @param size       tamanho da página
+     * @return página de produtos, com o total de produtos que atendem ao
+     *         filtro
+     * @throws InvalidValueException se a página estiver fora dos limites ou
+     *                               um preço tiver mais de 2 casas decimais
+     *                               (ou não couber em centavos)
+     */
+    public Page<Product> filter(Criteria criteria, SortField sortField, boolean descending, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new InvalidValueException("Página deve ser >= 0 e tamanho >= 1");
+        }
+        long window = ((long) page + 1) * size;
+        if (window > MAX_WINDOW) {
+            throw new InvalidValueException("(página + 1) x tamanho deve ser no máximo " + MAX_WINDOW
+                    + "; refine o filtro");
+        }
+        Long minCents = priceBound("minPrice", criteria.minPrice());
+        Long maxCents = priceBound("maxPrice", criteria.maxPrice());
+        refresh();
+
+        Comparator<Entry> order = comparator(sortField, descending);
+        List<Entry> top;
+        long total;
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = candidates(criteria, minCents, maxCents);
+            String text = criteria.text() == null || criteria.text().isBlank()
+                    ? null
+                    : criteria.text().trim().toLowerCase(Locale.ROOT);
+
+            // Heap com o pior dos K melhores no topo
+            PriorityQueue<Entry> heap = new PriorityQueue<>((int) window + 1, order.reversed());
+            total = 0;
+            IntIterator ids = candidates.getIntIterator();
+            while (ids.hasNext()) {
+                Entry entry = entries.get(ids.next());
+                if ((minCents != null && entry.priceCents < minCents)
+                        || (maxCents != null && entry.priceCents > maxCents)
+                        || (text != null && !entry.searchName.contains(text))) {
+                    continue;
+                }
+                total++;
+                heap.offer(entry);
+                if (heap.size() > window) {
+                    heap.poll();
+                }
+            }
+            top = new ArrayList<>(heap);
+        } finally {
+            lock.readLock().unlock();
+        }
+        top.sort(order);
+
+        List<Long> pageIds = top.stream()
+                .skip((long) page * size)
+                .map(Entry::id)
+                .toList();
+        return new PageImpl<>(load(pageIds), PageRequest.of(page, size), total);
+    }
+
+    /**
+     * Contagens por categoria (categorias com pelo menos um produto): a
+     * cardinalidade do bitmap da categoria e da sua interseção com "com
+     * estoque", sem materializar a interseção.
+     */
+    public List<CategoryCount> categoryCounts() {
+        refresh();
+        lock.readLock().lock();
+        try {
+            List<CategoryCount> counts = new ArrayList<>(byCategory.size());
+            byCategory.forEach((categoryId, products) -> counts.add(new CategoryCount(categoryId,
+                    products.getLongCardinality(), RoaringBitmap.andCardinality(products, inStock))));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Preço do filtro em centavos. Valor do cliente: sem arredondar, o que
+     * não for exato em centavos é rejeitado.
+     */
+    private static Long priceBound(String field, BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        try {
+            return Money.toCents(price);
+        } catch (ArithmeticException e) {
+            throw new InvalidValueException(field, price.toPlainString());
+        }
+    }
+
+    private RoaringBitmap candidates(Criteria criteria, Long minCents, Long maxCents) {
+        RoaringBitmap result = all;
+        if (criteria.categoryIds() != null && !criteria.categoryIds().isEmpty()) {
+            RoaringBitmap categories = new RoaringBitmap();
+            for (Integer categoryId : criteria.categoryIds()) {
+                RoaringBitmap bitmap = byCategory.get(categoryId);
+                if (bitmap != null) {
+                    categories.or(bitmap);
+                }
+            }
+            result = RoaringBitmap.and(result, categories);
+        }
+        if (criteria.inStock() != null) {
+            result = criteria.inStock()
+                    ? RoaringBitmap.and(result, inStock)
+                    : RoaringBitmap.andNot(result, inStock);
+        }
+        if (minCents != null || maxCents != null) {
+            int from = minCents == null ? 0 : bucket(minCents);
+            int to = maxCents == null ? byPriceBucket.length - 1 : bucket(maxCents);
+            RoaringBitmap prices = new RoaringBitmap();
+            for (int i = from; i <= to; i++) {
+                prices.or(byPriceBucket[i]);
+            }
+            result = RoaringBitmap.and(result, prices);
+        }
+        return result;
+    }
+
+    /**
+     * Produtos da página, do banco, na ordem do índice. Um produto excluído
+     * depois da consulta ao índice é omitido.
+     */
+    private List<Product> load(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> found = new HashMap<>();
+        productRepository.findAllById(ids).forEach(product -> found.put(product.getId(), product));
+        List<Product> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return ordered;
+    }
+
+    private void refresh() {
+        if (!resyncPending.get() && dirty.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (resyncPending.getAndSet(false)) {
+                dirty.clear();
+                rebuild();
+            } else if (!dirty.isEmpty()) {
+                List<Long> ids = new ArrayList<>(dirty);
+                dirty.removeAll(ids);
+                ids.forEach(this::remove);
+                productRepository.findFilterRowsByIdIn(ids).forEach(this::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuild() {
+        entries.clear();
+        all.clear();
+        inStock.clear();
+        byCategory.clear();
+        Arrays.stream(byPriceBucket).forEach(RoaringBitmap::clear);
+
+        List<FilterRow> rows = productRepository.findAllFilterRows();
+        rows.forEach(this::add);
+
+        all.runOptimize();
+        inStock.runOptimize();
+        byCategory.values().forEach(RoaringBitmap::runOptimize);
+        Arrays.stream(byPriceBucket).forEach(RoaringBitmap::runOptimize);
+        log.debug("Índice de filtros carregado: {} produto(s), {} categoria(s)", rows.size(), byCategory.size());
+    }
+
+    private void add(FilterRow row) {
+        // Bitmaps são de int: IDs acima de 2^31 - 1 não cabem no índice
+        int id = Math.toIntExact(row.getId());
+        long priceCents = Money.toCents(row.getPrice());
+        Entry entry = new Entry(row.getId(), row.getName(), row.getName().toLowerCase(Locale.ROOT),
+                priceCents, row.getCategoryId(), row.getStock() != null && row.getStock() > 0);
+        entries.put(id, entry);
+        all.add(id);
+        if (entry.inStock) {
+            inStock.add(id);
+        }
+        if (entry.categoryId != null) {
+            byCategory.computeIfAbsent(entry.categoryId, key -> new RoaringBitmap()).add(id);
+        }
+        byPriceBucket[bucket(priceCents)].add(id);
+    }
+
+    private void remove(Long productId) {
+        int id = Math.toIntExact(productId);
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        all.remove(id);
+        inStock.remove(id);
+        if (entry.categoryId != null) {
+            RoaringBitmap category = byCategory.get(entry.categoryId);
+            category.remove(id);
+            if (category.isEmpty()) {
+                byCategory.remove(entry.categoryId);
+            }
+        }
+        byPriceBucket[bucket(entry.priceCents)].remove(id);
+    }
+
+    private int bucket(long priceCents) {
+        int index = Arrays.binarySearch(bucketBounds, priceCents);
+        // Preço igual a um limite abre a faixa seguinte
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private int indexedProducts() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Comparator<Entry> comparator(SortField field, boolean descending) {
+        Comparator<Entry> primary = field == SortField.PRICE
+                ? Comparator.comparingLong(Entry::priceCents)
+                : Comparator.comparing(Entry::name, String.CASE_INSENSITIVE_ORDER);
+        if (descending) {
+            primary = primary.reversed();
+        }
+        return primary.thenComparingLong(Entry::id);
+    }
+
+    private record Entry(long id, String name, String searchName, long priceCents, Integer categoryId,
+            boolean inStock) {
+    }
+}
@@ -1,16 +1,26 @@
 package com.desafio.loja.service;
 
+import com.desafio.loja.event.ProductChangedEvent;
 import com.desafio.loja.exception.InvalidValueException;
 import com.desafio.loja.exception.ResourceNotFoundException;
+import com.desafio.loja.model.Category;
 import com.desafio.loja.model.Product;
+import com.desafio.loja.repository.CategoryRepository;
 import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.util.Money;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Serviço responsável pela gestão de produtos.
@@ -21,10 +31,28 @@ import java.util.List;
  * </p>
  * 
  * <p>
+ * <b>Eventos:</b> toda alteração publica um {@link ProductChangedEvent},
+ * consumido após o commit (ex: {@link CatalogSnapshotService}).
+ * </p>
+ * 
+ * <p>
+ * <b>Leituras:</b> listagens e buscas são {@code readOnly} e podem ser
+ * atendidas por uma réplica ({@code loja.datasource.replicas.*}).
+ * {@link #findById} fica no primário: é usado por escritas e logo após
+ * elas.
+ * </p>
+ * 
+ * <p>
  * <b>Suporte a Paginação:</b> Os métodos findAll e findByName retornam
  * páginas para otimização de performance em listagens grandes.
  * </p>
  * 
+ * <p>
+ * <b>Categorias:</b> o produto chega com a categoria só pelo nome; ao salvar,
+ * o nome é trocado pela entrada do dicionário {@link Category}, criada na
+ * primeira vez que aparece.
+ * </p>
+ * 
  * @author Desafio Técnico
  * @version 2.0
  * @see ProductRepository
@@ -33,16 +61,26 @@ import java.util.List;
 @Service
 public class ProductService {
 
+    /** Máximo de IDs por busca em lote ({@link #findAllByIds}). */
+    public static final int MAX_BATCH_IDS = 1000;
+
     private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher events;
 
     /**
      * Construtor com injeção de dependência.
      * 
-     * @param productRepository repositório para operações de persistência de
-     *                          produtos
+     * @param productRepository  repositório para operações de persistência de
+     *                           produtos
+     * @param categoryRepository dicionário de categorias
+     * @param events             publicador de {@link ProductChangedEvent}
      */
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
+            ApplicationEventPublisher events) {
         this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.events = events;
     }
 
     /**
@@ -51,6 +89,7 @@ public class ProductService {
      * @param pageable configuração de paginação (page, size, sort)
      * @return página de produtos
      */
+    @Transactional(readOnly = true)
     public Page<Product> findAll(Pageable pageable) {
         return productRepository.findAll(pageable);
     }
@@ -60,6 +99,7 @@ public class ProductService {
      * 
      * @return lista de todos os produtos; lista vazia se não houver produtos
      */
+    @Transactional(readOnly = true)
     public List<Product> findAll() {
         return productRepository.findAll();
     }
@@ -80,6 +120,39 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Produto", id));
     }
 
+    /**
+     * Busca vários produtos por ID em uma única query ({@code IN}).
+     * 
+     * <p>
+     * IDs repetidos são buscados uma vez; IDs inexistentes são simplesmente
+     * omitidos (sem {@link ResourceNotFoundException}).
+     * </p>
+     * 
+     * @param ids IDs dos produtos (no máximo {@value #MAX_BATCH_IDS} distintos)
+     * @return produtos encontrados, na ordem da primeira ocorrência de cada ID
+     * @throws InvalidValueException se houver mais IDs do que o permitido
+     */
+    @Transactional(readOnly = true)
+    public List<Product> findAllByIds(Collection<Long> ids) {
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+        // "?ids=1,,2" chega com um null
+        distinct.remove(null);
+        if (distinct.size() > MAX_BATCH_IDS) {
+            throw new InvalidValueException("Máximo de " + MAX_BATCH_IDS + " IDs por busca; recebidos " + distinct.size());
+        }
+        Map<Long, Product> found = new HashMap<>();
+        productRepository.findAllById(distinct).forEach(product -> found.put(product.getId(), product));
+
+        List<Product> ordered = new ArrayList<>(found.size());
+        for (Long id : distinct) {
+            Product product = found.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return ordered;
+    }
+
     /**
      * Busca produtos cujo nome contenha o termo informado (versão paginada).
      * 
@@ -91,6 +164,7 @@ public class ProductService {
      * @param pageable configuração de paginação
      * @return página de produtos que correspondem ao critério
      */
+    @Transactional(readOnly = true)
     public Page<Product> findByName(String name, Pageable pageable) {
         return productRepository.findByNameContainingIgnoreCase(name, pageable);
     }
@@ -101,6 +175,7 @@ public class ProductService {
      * @param name termo a ser buscado no nome dos produtos
      * @return lista de produtos que correspondem ao critério
      */
+    @Transactional(readOnly = true)
     public List<Product> findByName(String name) {
         return productRepository.findByNameContainingIgnoreCase(name);
     }
@@ -123,7 +198,10 @@ public class ProductService {
     @Transactional
     public Product save(Product product) {
         validateProduct(product);
-        return productRepository.save(product);
+        product.setCategory(resolveCategory(product.getCategory()));
+        Product saved = productRepository.save(product);
+        events.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.CREATED, saved.getId()));
+        return saved;
     }
 
     /**
@@ -144,8 +222,10 @@ public class ProductService {
         existingProduct.setPrice(productDetails.getPrice());
         existingProduct.setStock(productDetails.getStock());
         existingProduct.setImage(productDetails.getImage());
-        existingProduct.setCategory(productDetails.getCategory());
-        return productRepository.save(existingProduct);
+        existingProduct.setCategory(resolveCategory(productDetails.getCategory()));
+        Product saved = productRepository.save(existingProduct);
+        events.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.UPDATED, id));
+        return saved;
     }
 
     /**
@@ -158,6 +238,33 @@ public class ProductService {
     public void delete(Long id) {
         Product product = findById(id);
         productRepository.delete(product);
+        events.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.DELETED, id));
+    }
+
+    /**
+     * Troca a categoria informada (só o nome) pela entrada do dicionário,
+     * criando-a se for nova.
+     * 
+     * <p>
+     * Categoria nova: {@code INSERT ... ON CONFLICT (name) DO NOTHING}
+     * ({@link CategoryRepository#insertIfAbsent}) e nova busca,
+     * para que dois cadastros simultâneos com a mesma categoria nova não
+     * falhem no índice único {@code uk_categories_name}.
+     * </p>
+     * 
+     * @param category categoria com o nome (ou {@code null})
+     * @return categoria gerenciada, ou {@code null} se nenhum nome foi
+     *         informado
+     */
+    private Category resolveCategory(Category category) {
+        if (category == null || category.getName() == null || category.getName().isBlank()) {
+            return null;
+        }
+        String name = category.getName().trim();
+        return categoryRepository.findByName(name).orElseGet(() -> {
+            categoryRepository.insertIfAbsent(name);
+            return categoryRepository.findByName(name).orElseThrow();
+        });
     }
 
     /**
@@ -172,6 +279,12 @@ public class ProductService {
                     "O preço do produto deve ser maior que zero. Valor informado: " + product.getPrice());
         }
 
+        // Preços são tratados em centavos (Money): mais casas decimais não são representáveis
+        if (product.getPrice().stripTrailingZeros().scale() > Money.SCALE) {
+            throw new InvalidValueException(
+                    "O preço do produto deve ter no máximo 2 casas decimais. Valor informado: " + product.getPrice());
+        }
+
         if (product.getStock() != null && product.getStock() < 0) {
             throw new InvalidValueException(
                     "O estoque do produto não pode ser negativo. Valor informado: " + product.getStock());
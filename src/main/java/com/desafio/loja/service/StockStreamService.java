@@ -0,0 +1,470 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.dto.StockDeltaDTO;
+import com.desafio.loja.event.ProductChangedEvent;
+import com.desafio.loja.model.Product;
+import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.util.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream SSE de estoque e preço ({@code GET /api/products/stream}).
+ *
+ * <p>
+ * <b>Coalescência:</b> os eventos {@link ProductChangedEvent} pós-commit
+ * (locais e de outros nós) só marcam os produtos como alterados. A cada
+ * {@code loja.stream.flush-interval-ms}, os produtos marcados são lidos em
+ * uma única query e comparados ao último valor enviado; apenas estoque ou
+ * preço realmente diferentes viram um lote ({@link StockDeltaDTO.Batch}).
+ * Cem checkouts do mesmo produto no intervalo geram uma única linha.
+ * </p>
+ *
+ * <p>
+ * <b>Fan-out:</b> o lote é serializado uma vez e enfileirado para cada
+ * cliente. Um pool pequeno de escritores
+ * ({@code loja.stream.writer-threads}) esvazia as filas; nenhuma thread de
+ * requisição fica presa a um cliente.
+ * </p>
+ *
+ * <p>
+ * <b>Clientes lentos:</b> a fila de cada cliente tem no máximo
+ * {@code loja.stream.client-buffer} eventos. Cliente cuja fila enche é
+ * desconectado. O {@code EventSource} do navegador reconecta sozinho,
+ * enviando {@code Last-Event-ID}, e recebe um evento {@code resync} para
+ * recarregar o catálogo ({@code /api/products/all}).
+ * </p>
+ *
+ * <p>
+ * <b>Clientes parados:</b> o {@code send} é uma escrita bloqueante no
+ * socket; um cliente que parou de ler prende o escritor até o timeout de
+ * escrita do Tomcat, e nenhuma chamada ao emitter o solta antes. Um envio
+ * que passa de {@code loja.stream.send-timeout-ms} desconecta o cliente e
+ * ganha um escritor extra no pool, para que os demais clientes não esperem;
+ * o extra sai quando o envio preso finalmente retorna. Os extras são
+ * limitados a {@code loja.stream.max-extra-writers}: se muitos clientes
+ * param ao mesmo tempo (ex: partição de rede), os que passam do limite são
+ * desconectados sem repor o escritor ({@code reason=writer-cap}). O
+ * emitter de um cliente desconectado é encerrado por quem o está usando (o
+ * escritor, ao fim do envio) ou, se ninguém estiver, por quem o
+ * desconectou; nunca por uma tarefa na fila dos escritores.
+ * </p>
+ *
+ * @author Desafio Técnico
+ * @see StockDeltaDTO.Batch
+ */
+@Service
+public class StockStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockStreamService.class);
+
+    static final String EVENT_STOCK = "stock";
+    static final String EVENT_RESYNC = "resync";
+
+    // Estados de Subscriber.sendStarted além do nanoTime de um envio
+    private static final long IDLE = Long.MIN_VALUE;
+    // Envio preso com um escritor extra no lugar
+    private static final long STALLED = Long.MIN_VALUE + 1;
+    // Envio preso sem escritor extra (limite atingido)
+    private static final long STALLED_UNREPLACED = Long.MIN_VALUE + 2;
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxClients;
+    private final int clientBuffer;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final int writerThreads;
+    private final int maxExtraWriters;
+    private final ThreadPoolExecutor writers;
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
+    private final AtomicLong seq = new AtomicLong();
+    // Acessado só pela thread do flush()
+    private final Map<Long, StockDeltaDTO> lastSent = new HashMap<>();
+
+    private final Counter batches;
+    private final Counter dropped;
+    private final Counter stalled;
+    private final Counter stalledOverCap;
+
+    public StockStreamService(
+            ProductRepository productRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry registry,
+            @Value("${loja.stream.max-clients:5000}") int maxClients,
+            @Value("${loja.stream.client-buffer:32}") int clientBuffer,
+            @Value("${loja.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${loja.stream.writer-threads:4}") int writerThreads,
+            @Value("${loja.stream.send-timeout-ms:2000}") long sendTimeoutMs,
+            @Value("${loja.stream.max-extra-writers:16}") int maxExtraWriters) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.maxClients = maxClients;
+        this.clientBuffer = clientBuffer;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = sendTimeoutMs * 1_000_000;
+        this.writerThreads = writerThreads;
+        this.maxExtraWriters = maxExtraWriters;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "stock-stream-writer-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.batches = Counter.builder("loja.stream.batches")
+                .description("Lotes de alterações de estoque/preço enviados")
+                .register(registry);
+        this.dropped = Counter.builder("loja.stream.dropped")
+                .description("Clientes SSE desconectados por não acompanharem o stream")
+                .tag("reason", "queue-full")
+                .register(registry);
+        this.stalled = Counter.builder("loja.stream.dropped")
+                .description("Clientes SSE desconectados por não acompanharem o stream")
+                .tag("reason", "send-timeout")
+                .register(registry);
+        this.stalledOverCap = Counter.builder("loja.stream.dropped")
+                .description("Clientes SSE desconectados por não acompanharem o stream")
+                .tag("reason", "writer-cap")
+                .register(registry);
+        Gauge.builder("loja.stream.clients", subscribers, Map::size)
+                .description("Clientes SSE conectados")
+                .register(registry);
+    }
+
+    /**
+     * Registra um novo cliente.
+     *
+     * @param lastEventId cabeçalho {@code Last-Event-ID} de uma reconexão
+     * @return o emitter, ou vazio se o limite de clientes foi atingido
+     */
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        if (subscribers.size() >= maxClients) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter);
+        subscribers.put(subscriber.id, subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> subscribers.remove(subscriber.id));
+        emitter.onError(error -> subscribers.remove(subscriber.id));
+
+        // Lotes perdidos durante a desconexão não são reenviados
+        if (lastEventId != null && !lastEventId.equals(String.valueOf(seq.get()))) {
+            subscriber.offer(resyncEvent());
+        }
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Marca os produtos alterados para o próximo lote.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.RESYNC) {
+            resyncPending.set(true);
+        } else {
+            dirty.addAll(event.productIds());
+        }
+    }
+
+    /**
+     * Monta o lote do intervalo e o distribui aos clientes.
+     */
+    @Scheduled(fixedDelayString = "${loja.stream.flush-interval-ms:250}")
+    public void flush() {
+        dropStalledSends();
+        if (subscribers.isEmpty()) {
+            // Sem clientes o último valor enviado deixa de ser conhecido
+            dirty.clear();
+            lastSent.clear();
+            resyncPending.set(false);
+            return;
+        }
+        if (resyncPending.getAndSet(false)) {
+            dirty.clear();
+            lastSent.clear();
+            broadcast(resyncEvent());
+            return;
+        }
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+
+        Map<Long, Product> current = new HashMap<>();
+        productRepository.findAllById(ids).forEach(product -> current.put(product.getId(), product));
+
+        List<StockDeltaDTO> changed = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (Long id : ids) {
+            Product product = current.get(id);
+            if (product == null) {
+                lastSent.remove(id);
+                removed.add(id);
+                continue;
+            }
+            StockDeltaDTO delta = new StockDeltaDTO(id, product.getStock(), normalize(product.getPrice()));
+            if (!delta.equals(lastSent.put(id, delta))) {
+                changed.add(delta);
+            }
+        }
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+
+        long batchSeq = seq.incrementAndGet();
+        StockDeltaDTO.Batch batch = new StockDeltaDTO.Batch(batchSeq, changed, removed);
+        try {
+            broadcast(SseEmitter.event()
+                    .id(String.valueOf(batchSeq))
+                    .name(EVENT_STOCK)
+                    .data(objectMapper.writeValueAsString(batch), MediaType.APPLICATION_JSON)
+                    .build());
+            batches.increment();
+        } catch (JsonProcessingException e) {
+            log.error("Falha ao serializar o lote {} do stream de estoque", batchSeq, e);
+        }
+    }
+
+    /**
+     * Comentário SSE periódico: mantém proxies com a conexão aberta e
+     * detecta clientes que já foram embora.
+     */
+    @Scheduled(fixedRateString = "${loja.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcast(SseEmitter.event().comment("ping").build());
+        }
+    }
+
+    /**
+     * Desconecta os clientes com um envio em andamento há mais de
+     * {@code loja.stream.send-timeout-ms}.
+     */
+    private void dropStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers.values()) {
+            long started = subscriber.sendStarted.get();
+            if (started != IDLE && started != STALLED && started != STALLED_UNREPLACED
+                    && now - started > sendTimeoutNanos) {
+                subscriber.stall(started);
+            }
+        }
+    }
+
+    /**
+     * Adiciona um escritor extra no lugar de um preso em um cliente parado,
+     * até {@code loja.stream.max-extra-writers}.
+     *
+     * @return {@code false} se o limite de extras foi atingido
+     */
+    private synchronized boolean addWriter() {
+        if (writers.getCorePoolSize() - writerThreads >= maxExtraWriters) {
+            return false;
+        }
+        writers.setMaximumPoolSize(writers.getMaximumPoolSize() + 1);
+        writers.setCorePoolSize(writers.getCorePoolSize() + 1);
+        return true;
+    }
+
+    /**
+     * Remove um escritor extra quando o envio preso retorna.
+     */
+    private synchronized void removeWriter() {
+        writers.setCorePoolSize(writers.getCorePoolSize() - 1);
+        writers.setMaximumPoolSize(writers.getMaximumPoolSize() - 1);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(subscriber -> subscriber.emitter.complete());
+        writers.shutdownNow();
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.offer(event);
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> resyncEvent() {
+        return SseEmitter.event()
+                .id(String.valueOf(seq.get()))
+                .name(EVENT_RESYNC)
+                .data("{}", MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    // 599.9 e 599.90 são o mesmo preço
+    private static BigDecimal normalize(BigDecimal price) {
+        return price == null ? null : Money.fromCents(Money.toCents(price));
+    }
+
+    /**
+     * Cliente conectado: fila limitada de eventos prontos e no máximo um
+     * escritor por vez.
+     */
+    private final class Subscriber {
+
+        private final long id;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Início do envio em andamento (nanoTime), IDLE ou STALLED
+        private final AtomicLong sendStarted = new AtomicLong(IDLE);
+        private volatile boolean closed;
+
+        private Subscriber(long id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(clientBuffer);
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (!queue.offer(event)) {
+                drop();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed && (event = queue.poll()) != null) {
+                    sendStarted.set(System.nanoTime());
+                    emitter.send(event);
+                    finishSend();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado
+                subscribers.remove(id);
+                closed = true;
+                queue.clear();
+            } finally {
+                finishSend();
+                if (closed) {
+                    completeQuietly();
+                }
+                draining.set(false);
+            }
+            if (!queue.isEmpty() && subscribers.containsKey(id)) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Fila cheia: desconecta o cliente.
+         */
+        private void drop() {
+            if (close()) {
+                dropped.increment();
+                log.debug("Cliente SSE {} desconectado: fila cheia ({} eventos)", id, clientBuffer);
+            }
+        }
+
+        /**
+         * Fim de um envio: devolve o escritor extra se {@link #stall} o criou.
+         */
+        private void finishSend() {
+            if (sendStarted.getAndSet(IDLE) == STALLED) {
+                removeWriter();
+            }
+        }
+
+        /**
+         * Envio preso além do prazo: desconecta o cliente e, abaixo do limite
+         * de extras, repõe o escritor. Só vale se o envio observado ainda não
+         * terminou.
+         */
+        private void stall(long observedStart) {
+            if (!sendStarted.compareAndSet(observedStart, STALLED_UNREPLACED)) {
+                return;
+            }
+            boolean replaced = addWriter();
+            // O envio pode ter terminado entre os dois passos: o extra já não é necessário
+            if (replaced && !sendStarted.compareAndSet(STALLED_UNREPLACED, STALLED)) {
+                removeWriter();
+            }
+            if (close()) {
+                (replaced ? stalled : stalledOverCap).increment();
+                log.debug("Cliente SSE {} desconectado: envio parado há mais de {} ms{}", id,
+                        sendTimeoutNanos / 1_000_000, replaced ? "" : " (limite de escritores extras)");
+            }
+        }
+
+        /**
+         * Remove o cliente. O emitter é encerrado aqui se nenhum escritor o
+         * estiver usando; senão, pelo escritor ao terminar o envio atual.
+         *
+         * @return {@code true} se o cliente ainda estava conectado
+         */
+        private boolean close() {
+            if (subscribers.remove(id) == null) {
+                return false;
+            }
+            closed = true;
+            queue.clear();
+            if (draining.compareAndSet(false, true)) {
+                completeQuietly();
+                draining.set(false);
+            }
+            return true;
+        }
+
+        private void completeQuietly() {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Já encerrado pelo container
+            }
+        }
+    }
+}
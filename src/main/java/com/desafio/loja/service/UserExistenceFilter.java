@@ -0,0 +1,132 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.model.User;
+import com.desafio.loja.repository.UserRepository;
+import com.desafio.loja.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Filtro de existência de usuários (nomes e e-mails já cadastrados).
+ *
+ * <p>
+ * Mantém em memória um {@link BloomFilter} com todos os nomes e e-mails
+ * ocupados. Como o filtro nunca gera falso negativo, a pergunta
+ * "este nome está livre?" é respondida sem consultar o banco na grande
+ * maioria dos casos; apenas os positivos (reais ou falsos) são confirmados
+ * via {@link UserRepository}.
+ * </p>
+ *
+ * <p>
+ * <b>Fonte de verdade:</b> o índice único em {@code tb_users.name} e
+ * {@code tb_users.email}. O filtro é apenas um atalho: se dois cadastros
+ * concorrentes passarem pela verificação, o banco rejeita o segundo.
+ * </p>
+ *
+ * <p>
+ * O filtro é aquecido na primeira utilização (antes dos seeders terminarem)
+ * e atualizado a cada novo cadastro via {@link #register(User)}.
+ * </p>
+ *
+ * <p>
+ * <b>Só para cadastro e seeders:</b> o filtro vive na memória de cada nó e
+ * só recebe os cadastros feitos nele. Usuários criados em outro nó ou
+ * direto no banco podem faltar, e um "certamente livre" errado aqui só
+ * adia a recusa para o índice único. Por isso o login nunca consulta o
+ * filtro: ele sempre busca o usuário no banco.
+ * </p>
+ *
+ * @see BloomFilter
+ */
+@Service
+public class UserExistenceFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    private final UserRepository userRepository;
+    private final BloomFilter names;
+    private final BloomFilter emails;
+
+    private volatile boolean warmedUp;
+
+    /**
+     * Construtor com injeção de dependência.
+     *
+     * @param userRepository     repositório de usuários (usado para aquecer e
+     *                           confirmar positivos)
+     * @param expectedInsertions capacidade planejada de usuários
+     * @param falsePositiveRate  taxa de falso positivo aceitável
+     */
+    public UserExistenceFilter(
+            UserRepository userRepository,
+            @Value("${loja.users.bloom.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${loja.users.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.names = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * Indica se o nome pode estar cadastrado, sem acessar o banco.
+     *
+     * @return {@code false} se o nome certamente está livre
+     */
+    private boolean mightContainName(String name) {
+        ensureWarmedUp();
+        return names.mightContain(name);
+    }
+
+    /**
+     * Verifica se o nome já está em uso.
+     * Só consulta o banco quando o filtro indica possível existência.
+     */
+    public boolean isNameTaken(String name) {
+        return mightContainName(name) && userRepository.findByName(name).isPresent();
+    }
+
+    /**
+     * Verifica se o e-mail já está em uso.
+     * Só consulta o banco quando o filtro indica possível existência.
+     */
+    public boolean isEmailTaken(String email) {
+        ensureWarmedUp();
+        return emails.mightContain(email) && userRepository.findByEmail(email).isPresent();
+    }
+
+    /**
+     * Registra no filtro um usuário recém-persistido.
+     */
+    public void register(User user) {
+        names.put(user.getName());
+        emails.put(user.getEmail());
+    }
+
+    /**
+     * Carrega todos os nomes e e-mails existentes uma única vez.
+     *
+     * <p>
+     * A projeção {@code findAllBy()} traz apenas as duas colunas necessárias,
+     * sem senha nem hash BCrypt.
+     * </p>
+     */
+    private void ensureWarmedUp() {
+        if (warmedUp) {
+            return;
+        }
+        synchronized (this) {
+            if (warmedUp) {
+                return;
+            }
+            int loaded = 0;
+            for (UserRepository.UserIdentity identity : userRepository.findAllBy()) {
+                names.put(identity.getName());
+                emails.put(identity.getEmail());
+                loaded++;
+            }
+            warmedUp = true;
+            log.info("Filtro de usuários aquecido com {} registros", loaded);
+        }
+    }
+}
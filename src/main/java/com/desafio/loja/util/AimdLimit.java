@@ -0,0 +1,117 @@
+package com.desafio.loja.util;
+
+/**
+ * Limite adaptativo de concorrência AIMD (<i>additive increase,
+ * multiplicative decrease</i>), seguro para uso concorrente.
+ *
+ * <p>
+ * O limite não é configurado à mão: ele segue a latência observada. Cada
+ * requisição concluída abaixo de {@code latencyThresholdNanos} e sem falha
+ * soma 1 ao limite, desde que pelo menos metade dele estivesse em uso (um
+ * limite ocioso não cresce à toa). Uma requisição lenta ou com falha o
+ * multiplica por {@code backoffRatio}.
+ * </p>
+ *
+ * <p>
+ * <b>Uma redução por janela:</b> quando o banco fica lento, todas as
+ * requisições em andamento terminam lentas. Só a primeira reduz o limite;
+ * as que começaram antes dessa redução já foram admitidas com o limite
+ * antigo e não contam de novo (como o TCP, que reduz a janela uma vez por
+ * RTT).
+ * </p>
+ *
+ * <p>
+ * <b>Prioridade:</b> {@link #tryAcquire(double)} recebe a fração do limite
+ * que a classe de tráfego pode ocupar. Com fração 0,5, o tráfego é
+ * recusado quando metade do limite já está em uso, e o restante fica para
+ * as classes de fração maior.
+ * </p>
+ */
+public class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos = Long.MIN_VALUE;
+
+    /**
+     * @param initialLimit          limite inicial
+     * @param minLimit              limite mínimo (nunca recusa tudo)
+     * @param maxLimit              limite máximo
+     * @param backoffRatio          fator de redução, entre 0 e 1 (ex: 0.75)
+     * @param latencyThresholdNanos latência acima da qual a requisição conta
+     *                              como sobrecarga
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limites inválidos: mínimo " + minLimit + ", máximo " + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio deve estar entre 0 e 1");
+        }
+        if (latencyThresholdNanos <= 0) {
+            throw new IllegalArgumentException("latencyThresholdNanos deve ser positivo");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Tenta admitir uma requisição.
+     *
+     * @param share fração do limite que esta classe de tráfego pode ocupar
+     *              (0 a 1)
+     * @return {@code true} se admitida; a requisição deve então chamar
+     *         {@link #release} ao terminar
+     */
+    public synchronized boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        if (inFlight >= allowed) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Registra o fim de uma requisição admitida e ajusta o limite.
+     *
+     * @param startNanos {@link System#nanoTime()} na admissão
+     * @param endNanos   {@link System#nanoTime()} no fim
+     * @param failed     {@code true} se a requisição falhou por sobrecarga
+     *                   (ex: timeout do pool, erro 5xx)
+     */
+    public synchronized void release(long startNanos, long endNanos, boolean failed) {
+        int inFlightBefore = inFlight;
+        inFlight--;
+        if (failed || endNanos - startNanos > latencyThresholdNanos) {
+            if (startNanos > lastDecreaseNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = endNanos;
+            }
+        } else if (inFlightBefore * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    /**
+     * Limite atual.
+     */
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Requisições admitidas e ainda em andamento.
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,116 @@
+package com.desafio.loja.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings, seguro para uso concorrente.
+ *
+ * <p>
+ * Responde "definitivamente não existe" ou "talvez exista". Um resultado
+ * negativo é sempre correto; um positivo pode ser falso com probabilidade
+ * próxima da taxa configurada e deve ser confirmado na fonte de verdade.
+ * </p>
+ *
+ * <p>
+ * <b>Implementação:</b> bits em um {@link AtomicLongArray} (inserções sem
+ * lock) e <i>double hashing</i> (h1 + i·h2) sobre um hash de 64 bits, o que
+ * evita calcular k funções de hash independentes.
+ * </p>
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /**
+     * Cria um filtro dimensionado para a quantidade esperada de elementos.
+     *
+     * @param expectedInsertions quantidade esperada de elementos
+     * @param falsePositiveRate  taxa de falso positivo desejada (ex: 0.01)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions deve ser positivo");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate deve estar entre 0 e 1");
+        }
+
+        // m = -n·ln(p) / (ln 2)²   e   k = (m/n)·ln 2
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (m + 63) >>> 6);
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Registra um valor no filtro. Valores nulos são ignorados.
+     */
+    public void put(String value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = bitIndex(h1 + i * h2);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Verifica se o valor pode estar no filtro.
+     *
+     * @return {@code false} se o valor certamente nunca foi inserido
+     */
+    public boolean mightContain(String value) {
+        if (value == null) {
+            return false;
+        }
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = bitIndex(h1 + i * h2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long bitIndex(int combinedHash) {
+        // Remove o sinal antes do módulo para não gerar índices negativos
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * FNV-1a de 64 bits seguido do finalizador do MurmurHash3 (fmix64),
+     * que espalha bem strings curtas e parecidas (ex: "user1", "user2").
+     */
+    private static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,50 @@
+package com.desafio.loja.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Aritmética monetária em centavos ({@code long}).
+ *
+ * <p>
+ * Entidades e DTOs continuam expondo {@link BigDecimal} (escala 2, como as
+ * colunas {@code NUMERIC(10, 2)}). Internamente, preços e totais são
+ * somados e multiplicados como {@code long} em centavos: sem alocação por
+ * operação e sem arredondamento. As conversões nas bordas são exatas, e
+ * qualquer valor com mais de 2 casas decimais ou fora do intervalo de
+ * {@code long} gera {@link ArithmeticException} em vez de ser arredondado
+ * silenciosamente.
+ * </p>
+ */
+public final class Money {
+
+    /** Casas decimais da moeda (centavos). */
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Converte um valor em reais para centavos.
+     *
+     * @throws ArithmeticException se o valor tiver mais de 2 casas decimais
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    /**
+     * Converte centavos para reais com escala 2.
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Multiplica um valor em centavos por uma quantidade.
+     *
+     * @throws ArithmeticException em caso de overflow
+     */
+    public static long multiply(long cents, int quantity) {
+        return Math.multiplyExact(cents, (long) quantity);
+    }
+}
@@ -0,0 +1,19 @@
+package com.desafio.loja.util;
+
+/**
+ * Tempo decorrido para os campos {@code durationMs} dos logs estruturados.
+ */
+public final class Timing {
+
+    private Timing() {
+    }
+
+    /**
+     * Milissegundos desde {@code startedNanos}.
+     *
+     * @param startedNanos {@link System#nanoTime()} no início da operação
+     */
+    public static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,194 @@
+package com.desafio.loja.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Roda de tempo hierárquica (<i>hierarchical timing wheel</i>) para prazos
+ * em milissegundos, segura para uso concorrente.
+ *
+ * <p>
+ * Agendar e disparar custam O(1) por item, independentemente de quantos
+ * prazos estão pendentes: não há uma thread ou timer por item nem varredura
+ * de todos os itens a cada tique.
+ * </p>
+ *
+ * <p>
+ * <b>Níveis:</b> o primeiro nível tem {@code wheelSize} baldes de
+ * {@code tickMs} cada. Prazos além do seu alcance vão para um nível
+ * superior, criado sob demanda, cujo balde tem o tamanho de uma volta
+ * inteira do nível de baixo (ex: 100 ms × 512 → baldes de 51,2 s). Quando o
+ * relógio chega ao início de um balde superior, seus itens descem para o
+ * nível que agora os alcança (cascata), até dispararem no primeiro nível.
+ * </p>
+ *
+ * <p>
+ * <b>Precisão:</b> um item dispara no primeiro {@link #advance} em que o
+ * relógio já passou do fim do seu balde, ou seja, até {@code tickMs} depois
+ * do prazo. Não há cancelamento: quem agenda deve tolerar disparos de itens
+ * cujo prazo foi estendido (basta agendar de novo e ignorar o disparo
+ * antigo).
+ * </p>
+ *
+ * @param <T> tipo do item agendado
+ */
+public class TimingWheel<T> {
+
+    private final Level root;
+    private int size;
+
+    /**
+     * Cria uma roda com o relógio em {@code startMs}.
+     *
+     * @param tickMs    duração de cada balde do primeiro nível
+     * @param wheelSize quantidade de baldes por nível
+     * @param startMs   instante inicial do relógio
+     */
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs deve ser positivo");
+        }
+        if (wheelSize < 2) {
+            throw new IllegalArgumentException("wheelSize deve ser pelo menos 2");
+        }
+        this.root = new Level(tickMs, wheelSize, startMs);
+    }
+
+    /**
+     * Agenda um item.
+     *
+     * @param item       item a disparar
+     * @param deadlineMs prazo (mesmo relógio de {@link #advance})
+     * @return {@code false} se o prazo já venceu; o item não é guardado e
+     *         cabe a quem chamou tratá-lo na hora
+     */
+    public synchronized boolean schedule(T item, long deadlineMs) {
+        if (!root.place(new Entry<>(item, deadlineMs))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Avança o relógio até {@code nowMs}, entregando os itens vencidos.
+     *
+     * @param nowMs   instante atual
+     * @param expired recebe cada item vencido, ainda com o lock da roda:
+     *                deve ser rápido (ex: adicionar a uma lista)
+     */
+    public synchronized void advance(long nowMs, Consumer<T> expired) {
+        root.advance(nowMs, entry -> {
+            size--;
+            expired.accept(entry.item);
+        });
+    }
+
+    /**
+     * Quantidade de itens agendados.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private record Entry<T>(T item, long deadlineMs) {
+    }
+
+    /**
+     * Um nível da roda. Acessado só com o lock da {@link TimingWheel}.
+     */
+    private final class Level {
+
+        private final long tickMs;
+        private final int wheelSize;
+        private final long intervalMs;
+        private final List<List<Entry<T>>> buckets;
+        // Início do próximo balde a disparar (ou a descer), múltiplo de tickMs
+        private long currentTime;
+        private Level overflow;
+
+        private Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.intervalMs = Math.multiplyExact(tickMs, (long) wheelSize);
+            this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * @return {@code false} se o prazo é anterior a todos os baldes
+         *         pendentes (item vencido)
+         */
+        private boolean place(Entry<T> entry) {
+            if (entry.deadlineMs < currentTime) {
+                return false;
+            }
+            if (entry.deadlineMs < currentTime + intervalMs) {
+                bucket(entry.deadlineMs).add(entry);
+                return true;
+            }
+            return overflow().place(entry);
+        }
+
+        /**
+         * Primeiro nível: dispara os baldes cujo fim já passou.
+         */
+        private void advance(long nowMs, Consumer<Entry<T>> expired) {
+            while (currentTime + tickMs <= nowMs) {
+                drain(bucket(currentTime), expired);
+                currentTime += tickMs;
+                cascadeFromOverflow(expired);
+            }
+        }
+
+        /**
+         * Nível superior: o nível de baixo chegou a {@code lowerTime}; os
+         * baldes que começam até ali descem e são reagendados a partir da
+         * raiz.
+         */
+        private void cascade(long lowerTime, Consumer<Entry<T>> expired) {
+            while (currentTime <= lowerTime) {
+                List<Entry<T>> bucket = bucket(currentTime);
+                List<Entry<T>> moving = new ArrayList<>(bucket);
+                bucket.clear();
+                currentTime += tickMs;
+                cascadeFromOverflow(expired);
+                for (Entry<T> entry : moving) {
+                    if (!root.place(entry)) {
+                        expired.accept(entry);
+                    }
+                }
+            }
+        }
+
+        private void cascadeFromOverflow(Consumer<Entry<T>> expired) {
+            if (overflow != null) {
+                overflow.cascade(currentTime, expired);
+            }
+        }
+
+        private void drain(List<Entry<T>> bucket, Consumer<Entry<T>> expired) {
+            if (bucket.isEmpty()) {
+                return;
+            }
+            List<Entry<T>> due = new ArrayList<>(bucket);
+            bucket.clear();
+            due.forEach(expired);
+        }
+
+        private List<Entry<T>> bucket(long timeMs) {
+            return buckets.get((int) Math.floorMod(Math.floorDiv(timeMs, tickMs), (long) wheelSize));
+        }
+
+        private Level overflow() {
+            if (overflow == null) {
+                overflow = new Level(intervalMs, wheelSize, currentTime);
+            }
+            return overflow;
+        }
+    }
+}
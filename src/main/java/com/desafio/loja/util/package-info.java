@@ -0,0 +1,8 @@
+/**
+ * Pacote de Utilitários - Estruturas de Apoio
+ * 
+ * Responsabilidades:
+ * - Estruturas de dados genéricas usadas pelos Services
+ * - Código sem dependência de Spring ou JPA
+ */
+package com.desafio.loja.util;
@@ -0,0 +1,31 @@
+-- =============================================
+-- PARTIÇÕES MENSAIS DE orders/order_items (repetível)
+-- =============================================
+-- Reaplicada pelo Flyway sempre que este arquivo muda. Cria as partições de
+-- [mês atual - months_back, mês atual + months_ahead] que ainda não existem;
+-- o OrderPartitionMaintainer da aplicação a chama diariamente.
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent TEXT, months_ahead INT DEFAULT 3, months_back INT DEFAULT 0)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start DATE := (date_trunc('month', CURRENT_DATE) - make_interval(months => months_back))::date;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + make_interval(months => months_ahead))::date;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        partition_name := format('%s_p%s', parent, to_char(month_start, 'YYYY_MM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                partition_name, parent, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+SELECT create_monthly_partitions('orders', 3);
+SELECT create_monthly_partitions('order_items', 3);
@@ -0,0 +1,63 @@
+-- =============================================
+-- V1 - SCHEMA BASE
+-- =============================================
+-- Tabelas exatamente como mapeadas pelas entidades JPA (o Hibernate só
+-- valida; ver spring.jpa.hibernate.ddl-auto). Índices de consulta ficam na V2.
+
+-- 1. PRODUTOS
+CREATE TABLE products (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL CHECK (price > 0),
+    stock INTEGER NOT NULL DEFAULT 0 CHECK (stock >= 0),
+    category VARCHAR(255),
+    image TEXT
+);
+
+-- 2. USUÁRIOS (entidade User -> tb_users)
+CREATE TABLE tb_users (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- Login por nome sem full scan (UserRepository.findByName)
+CREATE UNIQUE INDEX idx_user_name ON tb_users (name);
+
+-- 3. PEDIDOS
+-- Particionada por mês em created_at: consultas por período só leem as
+-- partições do intervalo e o VACUUM trabalha em tabelas pequenas.
+-- A chave primária precisa incluir a chave de partição; o id continua único
+-- por vir de uma sequência.
+CREATE TABLE orders (
+    id BIGSERIAL,
+    user_id BIGINT REFERENCES tb_users (id),
+    total NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- 4. ITENS DO PEDIDO
+-- Particionada junto com orders: created_at repete a data do pedido e
+-- compõe a chave estrangeira.
+CREATE TABLE order_items (
+    id BIGSERIAL,
+    order_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES products (id),
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    unit_price NUMERIC(10, 2) NOT NULL,
+    subtotal NUMERIC(10, 2) NOT NULL,
+    PRIMARY KEY (id, created_at),
+    FOREIGN KEY (order_id, created_at) REFERENCES orders (id, created_at) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+-- Rede de segurança: linhas fora das partições mensais (ex: relógio adiantado)
+-- não falham o checkout. Deve ficar vazia; o OrderPartitionMaintainer cria os
+-- meses antes. As partições mensais vêm de R__create_monthly_partitions.sql.
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
@@ -0,0 +1,42 @@
+-- =============================================
+-- V2 - ÍNDICES DOS FINDERS DOS REPOSITÓRIOS
+-- =============================================
+-- Cada índice indica a consulta que atende. Índices criados na tabela
+-- particionada são propagados para todas as partições, atuais e futuras.
+
+-- ---------- OrderRepository ----------
+
+-- findAllWithItems (ORDER BY created_at DESC), findByCreatedAtAfter/Between
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders (created_at);
+
+-- findByStatus; findArchivableIds (status = CANCELLED AND created_at < ?)
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at ON orders (status, created_at);
+
+-- findByUser_Id
+CREATE INDEX IF NOT EXISTS idx_orders_user_id ON orders (user_id);
+
+-- Carga dos itens de um pedido (findWithItemsById, @EntityGraph em todas as
+-- listagens) e deleteItemsByOrderIdIn
+CREATE INDEX IF NOT EXISTS idx_order_items_order ON order_items (order_id, created_at);
+
+-- FK para products: sem ele, cada DELETE/UPDATE de produto varre order_items
+CREATE INDEX IF NOT EXISTS idx_order_items_product ON order_items (product_id);
+
+-- ---------- ProductRepository ----------
+
+-- findByNameContainingIgnoreCase: o Spring Data gera
+-- upper(name) LIKE upper('%termo%'); o índice de trigramas atende o LIKE com
+-- curinga no início, que um B-tree não consegue usar
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (upper(name) gin_trgm_ops);
+
+-- existsByNameIgnoreCase (upper(name) = upper(?)); idx_product_name da
+-- entidade atende buscas exatas por nome
+CREATE INDEX IF NOT EXISTS idx_products_name_upper ON products (upper(name));
+CREATE INDEX IF NOT EXISTS idx_product_name ON products (name);
+
+-- findByStockGreaterThan (catálogo "em estoque")
+CREATE INDEX IF NOT EXISTS idx_products_stock ON products (stock);
+
+-- ---------- UserRepository ----------
+-- findByName: idx_user_name (V1); findByEmail: uk_users_email (V1)
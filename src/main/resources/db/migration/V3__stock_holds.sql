@@ -0,0 +1,23 @@
+-- =============================================
+-- V3 - RESERVAS DE ESTOQUE DOS CARRINHOS
+-- =============================================
+-- Cada linha é a quantidade de um produto reservada por um carrinho no
+-- servidor. A quantidade já foi descontada de products.stock; a reserva
+-- vencida devolve a quantidade (CartService).
+
+CREATE TABLE IF NOT EXISTS stock_holds (
+    id          BIGSERIAL PRIMARY KEY,
+    cart_id     UUID NOT NULL,
+    product_id  BIGINT NOT NULL REFERENCES products(id),
+    quantity    INTEGER NOT NULL CHECK (quantity > 0),
+    expires_at  TIMESTAMP NOT NULL,
+    created_at  TIMESTAMP NOT NULL,
+    -- Uma linha por produto no carrinho; também atende as buscas por cart_id
+    CONSTRAINT uk_stock_holds_cart_product UNIQUE (cart_id, product_id)
+);
+
+-- Varredura de segurança (findExpiredCartIds: expires_at <= ?)
+CREATE INDEX IF NOT EXISTS idx_stock_holds_expires_at ON stock_holds (expires_at);
+
+-- FK para products: sem ele, cada DELETE de produto varre stock_holds
+CREATE INDEX IF NOT EXISTS idx_stock_holds_product ON stock_holds (product_id);
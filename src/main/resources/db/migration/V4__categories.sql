@@ -0,0 +1,30 @@
+-- =============================================
+-- V4 - DICIONÁRIO DE CATEGORIAS
+-- =============================================
+-- products.category (texto livre repetido em cada linha) vira um id inteiro
+-- para a tabela categories. As facetas por categoria (CategoryFacetService)
+-- agrupam pelo id.
+
+CREATE TABLE IF NOT EXISTS categories (
+    id    SERIAL PRIMARY KEY,
+    name  VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+INSERT INTO categories (name)
+SELECT DISTINCT TRIM(category)
+FROM products
+WHERE category IS NOT NULL AND TRIM(category) <> ''
+ON CONFLICT (name) DO NOTHING;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS category_id INTEGER REFERENCES categories(id);
+
+UPDATE products p
+SET category_id = c.id
+FROM categories c
+WHERE c.name = TRIM(p.category);
+
+ALTER TABLE products DROP COLUMN IF EXISTS category;
+
+-- Filtro por categoria; FK para categories
+CREATE INDEX IF NOT EXISTS idx_products_category ON products (category_id);
@@ -0,0 +1,21 @@
+-- =============================================
+-- V5 - ARQUIVO FRIO DE PEDIDOS (schema archive)
+-- =============================================
+-- Pedidos antigos e cancelados saem de orders/order_items para
+-- archive.orders (OrderArchiver), na mesma transação que os apaga. Uma linha
+-- por pedido: os itens vão junto, em JSON comprimido com gzip (payload).
+-- No banco compartilhado, todos os nós enxergam o mesmo arquivo.
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE TABLE IF NOT EXISTS archive.orders (
+    id           BIGINT PRIMARY KEY,
+    user_id      BIGINT,
+    created_at   TIMESTAMP NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    payload      BYTEA NOT NULL,
+    archived_at  TIMESTAMP NOT NULL
+);
+
+-- Consultas e expurgo por data do pedido
+CREATE INDEX IF NOT EXISTS idx_archive_orders_created_at ON archive.orders (created_at);
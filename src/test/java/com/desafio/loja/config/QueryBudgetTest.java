@@ -0,0 +1,214 @@
+package com.desafio.loja.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+/**
+ * Verifica no build os orçamentos de queries de
+ * {@code loja.query-budget.budgets}.
+ *
+ * <p>
+ * Roda no perfil {@code querybudget} (H2 em modo PostgreSQL, com os dados
+ * dos seeders), com um teste por endpoint com orçamento. Cada teste prepara
+ * os próprios dados (pedido, carrinho), então a ordem de execução não
+ * importa. Uma alteração que some queries a um endpoint faz o
+ * {@code mvn test} falhar, e todo orçamento configurado precisa de um teste
+ * ({@link #everyConfiguredBudgetHasATest()}).
+ * </p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("querybudget")
+class QueryBudgetTest {
+
+    private static final String TWO_LINES =
+            "{\"items\":[{\"productId\":1,\"quantity\":1},{\"productId\":2,\"quantity\":1}]}";
+
+    // Uma entrada por teste abaixo
+    private static final Set<String> TESTED = Set.of(
+            "GET /api/products",
+            "GET /api/products/all",
+            "POST /api/products/batch",
+            "GET /api/products/facets",
+            "GET /api/products/filter",
+            "POST /cart/checkout",
+            "POST /cart/quote",
+            "GET /cart/orders",
+            "GET /cart/orders/*",
+            "GET /api/orders/user/*",
+            "PUT /cart/carts/*/items",
+            "DELETE /cart/carts/*/items/*",
+            "GET /cart/carts/*",
+            "POST /cart/carts/*/checkout");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QueryBudgetProperties properties;
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    @Test
+    void everyConfiguredBudgetHasATest() {
+        assertThat(TESTED).containsExactlyInAnyOrderElementsOf(properties.budgets().keySet());
+    }
+
+    @Test
+    void productPage() throws Exception {
+        assertWithinBudget("GET /api/products", HttpMethod.GET, "/api/products?page=0&size=10", null);
+    }
+
+    @Test
+    void productsByIds() throws Exception {
+        assertWithinBudget("GET /api/products", HttpMethod.GET, "/api/products?ids=1,2,3,999999", null);
+    }
+
+    @Test
+    void catalogSnapshot() throws Exception {
+        assertWithinBudget("GET /api/products/all", HttpMethod.GET, "/api/products/all", null);
+    }
+
+    @Test
+    void productBatch() throws Exception {
+        assertWithinBudget("POST /api/products/batch", HttpMethod.POST, "/api/products/batch",
+                "{\"ids\":[1,2,3,999999]}");
+    }
+
+    @Test
+    void categoryFacets() throws Exception {
+        assertWithinBudget("GET /api/products/facets", HttpMethod.GET, "/api/products/facets", null);
+    }
+
+    @Test
+    void productFilter() throws Exception {
+        assertWithinBudget("GET /api/products/filter", HttpMethod.GET,
+                "/api/products/filter?categoryId=1&categoryId=2&inStock=true&maxPrice=1000&sort=price,desc", null);
+    }
+
+    @Test
+    void checkout() throws Exception {
+        assertWithinBudget("POST /cart/checkout", HttpMethod.POST, "/cart/checkout", TWO_LINES);
+    }
+
+    @Test
+    void quote() throws Exception {
+        assertWithinBudget("POST /cart/quote", HttpMethod.POST, "/cart/quote", TWO_LINES);
+    }
+
+    @Test
+    void orderList() throws Exception {
+        perform(HttpMethod.POST, "/cart/checkout", TWO_LINES);
+        assertWithinBudget("GET /cart/orders", HttpMethod.GET, "/cart/orders", null);
+    }
+
+    @Test
+    void orderById() throws Exception {
+        long orderId = objectMapper.readTree(perform(HttpMethod.POST, "/cart/checkout", TWO_LINES)
+                .getContentAsString()).get("id").asLong();
+        assertWithinBudget("GET /cart/orders/*", HttpMethod.GET, "/cart/orders/" + orderId, null);
+    }
+
+    @Test
+    void ordersByUser() throws Exception {
+        assertWithinBudget("GET /api/orders/user/*", HttpMethod.GET, "/api/orders/user/1", null);
+    }
+
+    @Test
+    void cartItemPut() throws Exception {
+        String cart = newCart();
+        assertWithinBudget("PUT /cart/carts/*/items", HttpMethod.PUT, cart + "/items",
+                "{\"productId\":1,\"quantity\":1}");
+        // Segunda linha e alteração de uma linha existente
+        assertWithinBudget("PUT /cart/carts/*/items", HttpMethod.PUT, cart + "/items",
+                "{\"productId\":2,\"quantity\":1}");
+        assertWithinBudget("PUT /cart/carts/*/items", HttpMethod.PUT, cart + "/items",
+                "{\"productId\":1,\"quantity\":2}");
+    }
+
+    @Test
+    void cartItemDelete() throws Exception {
+        String cart = newCart();
+        perform(HttpMethod.PUT, cart + "/items", "{\"productId\":1,\"quantity\":1}");
+        assertWithinBudget("DELETE /cart/carts/*/items/*", HttpMethod.DELETE, cart + "/items/1", null);
+    }
+
+    @Test
+    void cartRead() throws Exception {
+        String cart = newCart();
+        perform(HttpMethod.PUT, cart + "/items", "{\"productId\":1,\"quantity\":1}");
+        assertWithinBudget("GET /cart/carts/*", HttpMethod.GET, cart, null);
+    }
+
+    @Test
+    void cartCheckout() throws Exception {
+        String cart = newCart();
+        perform(HttpMethod.PUT, cart + "/items", "{\"productId\":1,\"quantity\":1}");
+        perform(HttpMethod.PUT, cart + "/items", "{\"productId\":2,\"quantity\":1}");
+        assertWithinBudget("POST /cart/carts/*/checkout", HttpMethod.POST, cart + "/checkout", null);
+    }
+
+    /**
+     * Executa a requisição e confere que ela caiu no orçamento esperado, que
+     * respondeu sem erro e que ficou dentro do limite.
+     */
+    private void assertWithinBudget(String budgetKey, HttpMethod method, String uri, String body)
+            throws Exception {
+        MockHttpServletResponse response = perform(method, uri, body);
+
+        String path = uri.contains("?") ? uri.substring(0, uri.indexOf('?')) : uri;
+        Map.Entry<String, Integer> budget = findBudget(method.name() + " " + path);
+        assertThat(budget).as("orçamento de %s %s", method, path).isNotNull();
+        assertThat(budget.getKey()).isEqualTo(budgetKey);
+
+        assertThat(response.getStatus()).as("HTTP de %s %s: %s", method, uri, response.getContentAsString())
+                .isLessThan(400);
+        String queries = response.getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER);
+        assertThat(queries).as("cabeçalho %s", QueryBudgetFilter.QUERY_COUNT_HEADER).isNotNull();
+        assertThat(Integer.parseInt(queries)).as("queries de %s %s", method, uri)
+                .isLessThanOrEqualTo(budget.getValue());
+    }
+
+    private MockHttpServletResponse perform(HttpMethod method, String uri, String body) throws Exception {
+        MockHttpServletRequestBuilder request = request(method, uri);
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private static String newCart() {
+        return "/cart/carts/" + UUID.randomUUID();
+    }
+
+    private Map.Entry<String, Integer> findBudget(String key) {
+        Integer exact = properties.budgets().get(key);
+        if (exact != null) {
+            return Map.entry(key, exact);
+        }
+        return properties.budgets().entrySet().stream()
+                .filter(entry -> matcher.match(entry.getKey(), key))
+                .findFirst()
+                .orElse(null);
+    }
+}
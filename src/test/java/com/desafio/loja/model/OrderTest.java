@@ -0,0 +1,67 @@
+package com.desafio.loja.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Total em centavos mantido por {@link Order#addItem(OrderItem)} e
+ * {@link Order#removeItem(OrderItem)}.
+ */
+class OrderTest {
+
+    @Test
+    void addItemSumsPricedItems() {
+        Order order = new Order();
+        OrderItem first = new OrderItem();
+        first.applyPricing(new BigDecimal("10.50"), 2);
+        OrderItem second = new OrderItem();
+        second.applyPricing(new BigDecimal("0.99"), 1);
+
+        order.addItem(first);
+        order.addItem(second);
+
+        assertThat(order.getTotal()).isEqualTo(new BigDecimal("21.99"));
+    }
+
+    @Test
+    void addItemComputesAMissingSubtotal() {
+        Order order = new Order();
+        OrderItem item = new OrderItem();
+        item.setUnitPrice(new BigDecimal("7.25"));
+        item.setQuantity(4);
+
+        order.addItem(item);
+
+        assertThat(item.getSubtotal()).isEqualTo(new BigDecimal("29.00"));
+        assertThat(order.getTotal()).isEqualTo(new BigDecimal("29.00"));
+    }
+
+    @Test
+    void addItemRejectsAnItemWithoutPrice() {
+        Order order = new Order();
+        OrderItem item = new OrderItem();
+        item.setQuantity(1);
+
+        assertThatThrownBy(() -> order.addItem(item)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(order.getItems()).isEmpty();
+    }
+
+    @Test
+    void removeItemSubtractsItsSubtotal() {
+        Order order = new Order();
+        OrderItem first = new OrderItem();
+        first.applyPricing(new BigDecimal("10.00"), 1);
+        OrderItem second = new OrderItem();
+        second.applyPricing(new BigDecimal("2.50"), 2);
+        order.addItem(first);
+        order.addItem(second);
+
+        order.removeItem(first);
+
+        assertThat(order.getTotal()).isEqualTo(new BigDecimal("5.00"));
+    }
+}
@@ -0,0 +1,193 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.dto.CartDTO;
+import com.desafio.loja.exception.BusinessException;
+import com.desafio.loja.exception.InsufficientStockException;
+import com.desafio.loja.model.Order;
+import com.desafio.loja.model.Product;
+import com.desafio.loja.repository.CategoryRepository;
+import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.repository.StockHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reserva, devolução, expiração e checkout do carrinho no servidor.
+ *
+ * <p>
+ * Roda no perfil {@code querybudget} (H2 em modo PostgreSQL). Cada teste
+ * usa um produto próprio, com estoque conhecido, e um carrinho novo.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("querybudget")
+class CartServiceTest {
+
+    private static final int STOCK = 10;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private StockHoldRepository holdRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long productId;
+    private UUID cartId;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setName("Produto de teste " + UUID.randomUUID());
+        product.setPrice(new BigDecimal("12.50"));
+        product.setStock(STOCK);
+        product.setCategory(categoryRepository.findAll().get(0));
+        productId = productRepository.save(product).getId();
+        cartId = cartService.create().cartId();
+    }
+
+    @Test
+    void addingAnItemReservesStock() {
+        CartDTO cart = cartService.setQuantity(cartId, productId, 3);
+
+        assertThat(cart.items()).singleElement().satisfies(item -> assertThat(item.quantity()).isEqualTo(3));
+        assertThat(cart.total()).isEqualByComparingTo("37.50");
+        assertThat(cart.expiresAt()).isAfter(LocalDateTime.now());
+        assertThat(stock()).isEqualTo(STOCK - 3);
+    }
+
+    @Test
+    void changingTheQuantityReservesOrReleasesTheDifference() {
+        cartService.setQuantity(cartId, productId, 3);
+
+        cartService.setQuantity(cartId, productId, 5);
+        assertThat(stock()).isEqualTo(STOCK - 5);
+
+        cartService.setQuantity(cartId, productId, 2);
+        assertThat(stock()).isEqualTo(STOCK - 2);
+
+        CartDTO cart = cartService.setQuantity(cartId, productId, 0);
+        assertThat(cart.items()).isEmpty();
+        assertThat(stock()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void shortfallIsReportedWhenAddingAndReservesNothing() {
+        cartService.setQuantity(cartId, productId, 4);
+
+        assertThatThrownBy(() -> cartService.setQuantity(cartId, productId, STOCK + 1))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(stock()).isEqualTo(STOCK - 4);
+        assertThat(cartService.find(cartId).items())
+                .singleElement()
+                .satisfies(item -> assertThat(item.quantity()).isEqualTo(4));
+    }
+
+    @Test
+    void concurrentFirstAddsOfTheSameProductAllSucceed() throws Exception {
+        int requests = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<CartDTO>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                Callable<CartDTO> add = () -> {
+                    start.await();
+                    return cartService.setQuantity(cartId, productId, 1);
+                };
+                results.add(executor.submit(add));
+            }
+            start.countDown();
+            for (Future<CartDTO> result : results) {
+                assertThat(result.get().items()).singleElement()
+                        .satisfies(item -> assertThat(item.quantity()).isEqualTo(1));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(stock()).isEqualTo(STOCK - 1);
+        assertThat(holdRepository.findByCartIdOrderByIdAsc(cartId)).hasSize(1);
+    }
+
+    @Test
+    void expiredHoldsAreReturnedToStock() {
+        cartService.setQuantity(cartId, productId, 3);
+        expireCart();
+
+        cartService.sweep();
+
+        assertThat(stock()).isEqualTo(STOCK);
+        assertThat(cartService.find(cartId).items()).isEmpty();
+    }
+
+    @Test
+    void renewedCartIsNotReleased() {
+        cartService.setQuantity(cartId, productId, 3);
+        expireCart();
+        // Renova o prazo antes da liberação
+        cartService.setQuantity(cartId, productId, 3);
+
+        cartService.sweep();
+
+        assertThat(stock()).isEqualTo(STOCK - 3);
+        assertThat(cartService.find(cartId).items()).hasSize(1);
+    }
+
+    @Test
+    void checkoutTurnsHoldsIntoAnOrder() {
+        cartService.setQuantity(cartId, productId, 2);
+
+        Order order = orderService.checkoutCart(cartId);
+
+        assertThat(order.getId()).isNotNull();
+        assertThat(order.getTotal()).isEqualByComparingTo("25.00");
+        // O estoque já foi baixado na reserva
+        assertThat(stock()).isEqualTo(STOCK - 2);
+        assertThat(cartService.find(cartId).items()).isEmpty();
+    }
+
+    @Test
+    void checkoutOfAnEmptyCartIsRejected() {
+        assertThatThrownBy(() -> orderService.checkoutCart(cartId))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private int stock() {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+
+    private void expireCart() {
+        transactionTemplate.executeWithoutResult(
+                status -> holdRepository.extendByCartId(cartId, LocalDateTime.now().minusSeconds(1)));
+    }
+}
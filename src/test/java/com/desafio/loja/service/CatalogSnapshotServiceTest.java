@@ -0,0 +1,76 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.service.CatalogSnapshotService.Encoding;
+import com.desafio.loja.service.CatalogSnapshotService.Format;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Negociação de {@code Accept} e {@code Accept-Encoding} e comparação de
+ * {@code If-None-Match} do snapshot do catálogo.
+ */
+class CatalogSnapshotServiceTest {
+
+    private static final String ETAG = "\"1cce2b2e-gz\"";
+
+    @Test
+    void negotiatePicksTheHighestQuality() {
+        assertThat(CatalogSnapshotService.negotiate("gzip, deflate, br")).isEqualTo(Encoding.GZIP);
+        assertThat(CatalogSnapshotService.negotiate("gzip;q=0.5, deflate")).isEqualTo(Encoding.DEFLATE);
+        assertThat(CatalogSnapshotService.negotiate("deflate;q=0.4, gzip;q=0.8")).isEqualTo(Encoding.GZIP);
+        assertThat(CatalogSnapshotService.negotiate("identity, gzip;q=0.5")).isEqualTo(Encoding.IDENTITY);
+    }
+
+    @Test
+    void negotiateHonoursWildcardAndExclusions() {
+        assertThat(CatalogSnapshotService.negotiate("*")).isEqualTo(Encoding.GZIP);
+        assertThat(CatalogSnapshotService.negotiate("gzip;q=0, *;q=0.5")).isEqualTo(Encoding.DEFLATE);
+        assertThat(CatalogSnapshotService.negotiate("gzip;q=0")).isEqualTo(Encoding.IDENTITY);
+        assertThat(CatalogSnapshotService.negotiate("br")).isEqualTo(Encoding.IDENTITY);
+        assertThat(CatalogSnapshotService.negotiate(null)).isEqualTo(Encoding.IDENTITY);
+    }
+
+    @Test
+    void negotiateFormatDefaultsToJson() {
+        assertThat(CatalogSnapshotService.negotiateFormat(null)).contains(Format.JSON);
+        assertThat(CatalogSnapshotService.negotiateFormat("*/*")).contains(Format.JSON);
+        assertThat(CatalogSnapshotService.negotiateFormat("application/json, application/cbor")).contains(Format.JSON);
+        assertThat(CatalogSnapshotService.negotiateFormat("text/html,application/xhtml+xml,*/*;q=0.8"))
+                .contains(Format.JSON);
+    }
+
+    @Test
+    void negotiateFormatPicksBinaryFormats() {
+        assertThat(CatalogSnapshotService.negotiateFormat("application/cbor")).contains(Format.CBOR);
+        assertThat(CatalogSnapshotService.negotiateFormat("application/x-jackson-smile")).contains(Format.SMILE);
+        // Mais específico vence no empate de q
+        assertThat(CatalogSnapshotService.negotiateFormat("application/cbor, */*")).contains(Format.CBOR);
+        assertThat(CatalogSnapshotService.negotiateFormat("application/json;q=0.5, application/cbor"))
+                .contains(Format.CBOR);
+        assertThat(CatalogSnapshotService.negotiateFormat("application/json;q=0, application/*"))
+                .contains(Format.CBOR);
+    }
+
+    @Test
+    void negotiateFormatRejectsUnservedTypes() {
+        assertThat(CatalogSnapshotService.negotiateFormat("application/xml")).isEmpty();
+        assertThat(CatalogSnapshotService.negotiateFormat("application/protobuf")).isEmpty();
+        assertThat(CatalogSnapshotService.negotiateFormat("application/json;q=0")).isEmpty();
+        assertThat(CatalogSnapshotService.negotiateFormat("not a media type")).isEmpty();
+    }
+
+    @Test
+    void ifNoneMatchComparesWholeEntityTags() {
+        assertThat(CatalogSnapshotService.matchesIfNoneMatch(ETAG, ETAG)).isTrue();
+        assertThat(CatalogSnapshotService.matchesIfNoneMatch("\"other\", " + ETAG, ETAG)).isTrue();
+        assertThat(CatalogSnapshotService.matchesIfNoneMatch("W/" + ETAG, ETAG)).isTrue();
+        assertThat(CatalogSnapshotService.matchesIfNoneMatch("*", ETAG)).isTrue();
+
+        // Trechos do ETag não contam
+        assertThat(CatalogSnapshotService.matchesIfNoneMatch("\"1cce2b2e\"", ETAG)).isFalse();
+        assertThat(CatalogSnapshotService.matchesIfNoneMatch("\"x" + ETAG.substring(1), ETAG)).isFalse();
+        assertThat(CatalogSnapshotService.matchesIfNoneMatch("1cce2b2e-gz", ETAG)).isFalse();
+        assertThat(CatalogSnapshotService.matchesIfNoneMatch(null, ETAG)).isFalse();
+    }
+}
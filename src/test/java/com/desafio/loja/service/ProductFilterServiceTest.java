@@ -0,0 +1,241 @@
+package com.desafio.loja.service;
+
+import com.desafio.loja.event.ProductChangedEvent;
+import com.desafio.loja.exception.InvalidValueException;
+import com.desafio.loja.model.Product;
+import com.desafio.loja.repository.ProductRepository;
+import com.desafio.loja.repository.ProductRepository.FilterRow;
+import com.desafio.loja.service.ProductFilterService.Criteria;
+import com.desafio.loja.service.ProductFilterService.SortField;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Índice de bitmaps do {@link ProductFilterService}: interseção dos
+ * critérios, bordas das faixas de preço, paginação top-K e atualização
+ * incremental.
+ *
+ * <p>
+ * O repositório é um stub sobre um mapa de linhas em memória; faixas de
+ * preço 100, 250 e 500.
+ * </p>
+ */
+class ProductFilterServiceTest {
+
+    private static final int BATTERIES = 1;
+    private static final int SOLAR = 2;
+
+    private final Map<Long, Row> rows = new TreeMap<>();
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private ProductFilterService filter;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findAllFilterRows()).thenAnswer(invocation -> List.copyOf(rows.values()));
+        when(repository.findFilterRowsByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return rows.values().stream().filter(row -> ids.contains(row.id())).toList();
+        });
+        when(repository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false)
+                    .filter(rows::containsKey)
+                    .map(id -> rows.get(id).toProduct())
+                    .toList();
+        });
+        filter = new ProductFilterService(repository, new SimpleMeterRegistry(),
+                List.of(new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500")));
+    }
+
+    @Test
+    void combinesCategoryStockAndPriceCriteria() {
+        put(1, "Moura 60Ah", "599.90", 5, BATTERIES);
+        put(2, "Heliar 45Ah", "349.90", 0, BATTERIES);
+        put(3, "Freedom 115Ah", "899.00", 2, SOLAR);
+        put(4, "Moura 40Ah", "299.90", 3, BATTERIES);
+        put(5, "Clamper Solar", "99.90", 7, SOLAR);
+
+        assertThat(ids(criteria(List.of(BATTERIES), null, null, true, null))).containsExactly(4L, 1L);
+        assertThat(ids(criteria(List.of(BATTERIES), null, null, false, null))).containsExactly(2L);
+        assertThat(ids(criteria(List.of(BATTERIES, SOLAR), "300", "900", true, null))).containsExactly(3L, 1L);
+        assertThat(ids(criteria(null, null, "350", null, "moura"))).containsExactly(4L);
+        assertThat(ids(criteria(List.of(99), null, null, null, null))).isEmpty();
+    }
+
+    @Test
+    void priceEqualToABucketBoundIsInclusiveOnBothEnds() {
+        put(1, "A", "99.99", 1, BATTERIES);
+        put(2, "B", "100.00", 1, BATTERIES);
+        put(3, "C", "249.99", 1, BATTERIES);
+        put(4, "D", "250.00", 1, BATTERIES);
+
+        assertThat(ids(priceRange("100", null))).containsExactly(2L, 3L, 4L);
+        assertThat(ids(priceRange(null, "100"))).containsExactly(1L, 2L);
+        assertThat(ids(priceRange(null, "99.99"))).containsExactly(1L);
+        assertThat(ids(priceRange("100", "250"))).containsExactly(2L, 3L, 4L);
+        assertThat(ids(priceRange("250", "250"))).containsExactly(4L);
+        assertThat(ids(priceRange("250.01", null))).isEmpty();
+    }
+
+    @Test
+    void topKPagesMatchAFullSort() {
+        // Preços fora de ordem de ID, com empates resolvidos pelo ID
+        LongStream.rangeClosed(1, 25).forEach(id -> put(id, "Produto " + id,
+                BigDecimal.valueOf((id * 37) % 11 * 100 + 10, 2).toPlainString(), 1, BATTERIES));
+        List<Long> expected = rows.values().stream()
+                .sorted(Comparator.comparing(Row::price).reversed().thenComparing(Row::id))
+                .map(Row::id)
+                .toList();
+
+        Page<Product> first = filter.filter(all(), SortField.PRICE, true, 0, 10);
+        Page<Product> second = filter.filter(all(), SortField.PRICE, true, 1, 10);
+        Page<Product> last = filter.filter(all(), SortField.PRICE, true, 2, 10);
+
+        assertThat(first.getTotalElements()).isEqualTo(25);
+        assertThat(first.map(Product::getId).getContent()).isEqualTo(expected.subList(0, 10));
+        assertThat(second.map(Product::getId).getContent()).isEqualTo(expected.subList(10, 20));
+        assertThat(last.map(Product::getId).getContent()).isEqualTo(expected.subList(20, 25));
+        assertThat(filter.filter(all(), SortField.PRICE, true, 3, 10).getContent()).isEmpty();
+    }
+
+    @Test
+    void rejectsWindowsBeyondTheLimit() {
+        assertThatThrownBy(() -> filter.filter(all(), SortField.NAME, false, 10, 100))
+                .isInstanceOf(InvalidValueException.class);
+        assertThatThrownBy(() -> filter.filter(all(), SortField.NAME, false, -1, 10))
+                .isInstanceOf(InvalidValueException.class);
+    }
+
+    @Test
+    void rejectsPricesThatAreNotWholeCents() {
+        assertThatThrownBy(() -> filter.filter(priceRange("10.005", null), SortField.NAME, false, 0, 10))
+                .isInstanceOf(InvalidValueException.class)
+                .hasMessageContaining("minPrice");
+        assertThatThrownBy(() -> filter.filter(priceRange(null, "1e30"), SortField.NAME, false, 0, 10))
+                .isInstanceOf(InvalidValueException.class)
+                .hasMessageContaining("maxPrice");
+    }
+
+    @Test
+    void refreshRereadsOnlyChangedProducts() {
+        put(1, "Moura 60Ah", "599.90", 5, BATTERIES);
+        put(2, "Heliar 45Ah", "349.90", 2, BATTERIES);
+        assertThat(ids(criteria(null, null, null, true, null))).containsExactly(2L, 1L);
+
+        // Esgotou, mudou de faixa e de categoria
+        put(1, "Moura 60Ah", "89.90", 0, SOLAR);
+        filter.onProductChanged(ProductChangedEvent.stock(List.of(1L)));
+
+        assertThat(ids(criteria(null, null, null, true, null))).containsExactly(2L);
+        assertThat(ids(criteria(List.of(SOLAR), null, "99", false, null))).containsExactly(1L);
+        assertThat(ids(criteria(List.of(BATTERIES), null, null, null, null))).containsExactly(2L);
+        assertThat(filter.categoryCounts())
+                .extracting(ProductFilterService.CategoryCount::categoryId)
+                .containsExactlyInAnyOrder(BATTERIES, SOLAR);
+
+        // Excluído
+        rows.remove(2L);
+        filter.onProductChanged(ProductChangedEvent.of(ProductChangedEvent.Type.DELETED, 2L));
+
+        assertThat(ids(all())).containsExactly(1L);
+        assertThat(filter.categoryCounts())
+                .extracting(ProductFilterService.CategoryCount::categoryId)
+                .containsExactly(SOLAR);
+        verify(repository, times(1)).findAllFilterRows();
+        verify(repository).findFilterRowsByIdIn(List.of(1L));
+        verify(repository).findFilterRowsByIdIn(List.of(2L));
+    }
+
+    @Test
+    void resyncReloadsEverything() {
+        put(1, "Moura 60Ah", "599.90", 5, BATTERIES);
+        assertThat(ids(all())).containsExactly(1L);
+
+        // Alteração sem evento: só o RESYNC a enxerga
+        put(2, "Heliar 45Ah", "349.90", 2, BATTERIES);
+        assertThat(ids(all())).containsExactly(1L);
+
+        filter.onProductChanged(ProductChangedEvent.resync());
+        assertThat(ids(all())).containsExactly(2L, 1L);
+        verify(repository, times(2)).findAllFilterRows();
+    }
+
+    private List<Long> ids(Criteria criteria) {
+        return filter.filter(criteria, SortField.NAME, false, 0, 50).map(Product::getId).getContent();
+    }
+
+    private static Criteria all() {
+        return criteria(null, null, null, null, null);
+    }
+
+    private static Criteria priceRange(String min, String max) {
+        return criteria(null, min, max, null, null);
+    }
+
+    private static Criteria criteria(List<Integer> categoryIds, String min, String max, Boolean inStock,
+            String text) {
+        return new Criteria(categoryIds, min == null ? null : new BigDecimal(min),
+                max == null ? null : new BigDecimal(max), inStock, text);
+    }
+
+    private void put(long id, String name, String price, int stock, int categoryId) {
+        rows.put(id, new Row(id, name, new BigDecimal(price), stock, categoryId));
+    }
+
+    private record Row(Long id, String name, BigDecimal price, Integer stock, Integer categoryId)
+            implements FilterRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        @Override
+        public Integer getStock() {
+            return stock;
+        }
+
+        @Override
+        public Integer getCategoryId() {
+            return categoryId;
+        }
+
+        Product toProduct() {
+            Product product = new Product();
+            product.setId(id);
+            product.setName(name);
+            product.setPrice(price);
+            product.setStock(stock);
+            return product;
+        }
+    }
+}
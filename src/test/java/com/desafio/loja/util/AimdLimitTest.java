@@ -0,0 +1,139 @@
+package com.desafio.loja.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Aumento aditivo, redução multiplicativa uma vez por janela, frações por
+ * prioridade e limites mínimo e máximo do {@link AimdLimit}.
+ *
+ * <p>
+ * Os instantes são passados explicitamente: limiar de latência de 100 ns,
+ * requisições rápidas levam 10 ns e lentas 1000 ns.
+ * </p>
+ */
+class AimdLimitTest {
+
+    private static final long THRESHOLD = 100;
+    private static final long FAST = 10;
+    private static final long SLOW = 1_000;
+
+    @Test
+    void growsOnlyWhenAtLeastHalfTheLimitIsInUse() {
+        AimdLimit limit = new AimdLimit(10, 1, 100, 0.5, THRESHOLD);
+
+        // 4 de 10 em uso: ocioso, não cresce
+        acquire(limit, 4);
+        releaseFast(limit, 4);
+        assertThat(limit.limit()).isEqualTo(10);
+
+        // 5 de 10 em uso: só a primeira conclusão vê metade em uso
+        acquire(limit, 5);
+        releaseFast(limit, 5);
+        assertThat(limit.limit()).isEqualTo(11);
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    @Test
+    void slowRequestsAdmittedBeforeADecreaseDoNotDecreaseAgain() {
+        AimdLimit limit = new AimdLimit(16, 1, 100, 0.5, THRESHOLD);
+        acquire(limit, 4);
+
+        // Quatro requisições admitidas em t=0 terminam lentas: uma redução só
+        for (int i = 0; i < 4; i++) {
+            limit.release(0, SLOW + i, false);
+        }
+        assertThat(limit.limit()).isEqualTo(8);
+
+        // Admitida depois da redução: reduz de novo
+        acquire(limit, 1);
+        limit.release(SLOW + 10, 2 * SLOW + 10, false);
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void failuresDecreaseLikeSlowRequests() {
+        AimdLimit limit = new AimdLimit(16, 1, 100, 0.75, THRESHOLD);
+        acquire(limit, 1);
+
+        limit.release(0, FAST, true);
+
+        assertThat(limit.limit()).isEqualTo(12);
+    }
+
+    @Test
+    void shareCapsLowerPriorityTraffic() {
+        AimdLimit limit = new AimdLimit(10, 1, 100, 0.5, THRESHOLD);
+
+        // Fração 0,5: no máximo 5 de 10
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.tryAcquire(0.5)).isTrue();
+        }
+        assertThat(limit.tryAcquire(0.5)).isFalse();
+
+        // Fração 1: o restante do limite
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+        }
+        assertThat(limit.tryAcquire(1.0)).isFalse();
+        assertThat(limit.inFlight()).isEqualTo(10);
+    }
+
+    @Test
+    void tinyShareStillAdmitsOneRequest() {
+        AimdLimit limit = new AimdLimit(3, 1, 100, 0.5, THRESHOLD);
+
+        assertThat(limit.tryAcquire(0.1)).isTrue();
+        assertThat(limit.tryAcquire(0.1)).isFalse();
+    }
+
+    @Test
+    void limitStaysWithinMinAndMax() {
+        AimdLimit limit = new AimdLimit(4, 2, 5, 0.5, THRESHOLD);
+
+        // Crescimento até o máximo
+        for (int i = 0; i < 10; i++) {
+            acquire(limit, limit.limit());
+            releaseFast(limit, limit.inFlight());
+        }
+        assertThat(limit.limit()).isEqualTo(5);
+
+        // Redução até o mínimo, uma por janela
+        for (long t = 0; t < 10; t++) {
+            acquire(limit, 1);
+            limit.release(t * 2 * SLOW, t * 2 * SLOW + SLOW, false);
+        }
+        assertThat(limit.limit()).isEqualTo(2);
+        // No mínimo, a fração ainda admite ao menos uma
+        assertThat(limit.tryAcquire(0.1)).isTrue();
+    }
+
+    @Test
+    void initialLimitIsClampedAndInvalidSettingsAreRejected() {
+        assertThat(new AimdLimit(500, 1, 100, 0.5, THRESHOLD).limit()).isEqualTo(100);
+        assertThat(new AimdLimit(0, 3, 100, 0.5, THRESHOLD).limit()).isEqualTo(3);
+
+        assertThatThrownBy(() -> new AimdLimit(10, 0, 100, 0.5, THRESHOLD))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AimdLimit(10, 10, 5, 0.5, THRESHOLD))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AimdLimit(10, 1, 100, 1.0, THRESHOLD))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AimdLimit(10, 1, 100, 0.5, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void acquire(AimdLimit limit, int count) {
+        for (int i = 0; i < count; i++) {
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+        }
+    }
+
+    private static void releaseFast(AimdLimit limit, int count) {
+        for (int i = 0; i < count; i++) {
+            limit.release(0, FAST, false);
+        }
+    }
+}
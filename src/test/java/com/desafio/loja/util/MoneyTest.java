@@ -0,0 +1,50 @@
+package com.desafio.loja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Conversões exatas de {@link Money}: nada é arredondado em silêncio.
+ */
+class MoneyTest {
+
+    @Test
+    void convertsAmountsWithUpToTwoDecimals() {
+        assertThat(Money.toCents(new BigDecimal("199.90"))).isEqualTo(19_990L);
+        assertThat(Money.toCents(new BigDecimal("5"))).isEqualTo(500L);
+        assertThat(Money.toCents(new BigDecimal("0.1"))).isEqualTo(10L);
+        // Zeros à direita além da escala 2 não são perda de precisão
+        assertThat(Money.toCents(new BigDecimal("1.2300"))).isEqualTo(123L);
+        assertThat(Money.toCents(new BigDecimal("-3.45"))).isEqualTo(-345L);
+    }
+
+    @Test
+    void rejectsAmountsWithMoreThanTwoDecimals() {
+        assertThatThrownBy(() -> Money.toCents(new BigDecimal("10.005")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void rejectsAmountsOutsideTheLongRange() {
+        assertThatThrownBy(() -> Money.toCents(new BigDecimal("1e30")))
+                .isInstanceOf(ArithmeticException.class);
+        assertThat(Money.toCents(Money.fromCents(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void fromCentsAlwaysHasScaleTwo() {
+        assertThat(Money.fromCents(19_990L)).isEqualTo(new BigDecimal("199.90"));
+        assertThat(Money.fromCents(0L).scale()).isEqualTo(Money.SCALE);
+    }
+
+    @Test
+    void multiplyDetectsOverflow() {
+        assertThat(Money.multiply(19_990L, 3)).isEqualTo(59_970L);
+        assertThatThrownBy(() -> Money.multiply(Long.MAX_VALUE / 2, 3))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.desafio.loja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Agendamento, disparo e cascata entre níveis da {@link TimingWheel}.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 100;
+    private static final int SIZE = 8;
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0);
+
+    @Test
+    void firesOnceTheBucketHasEnded() {
+        wheel.schedule("a", 250);
+
+        assertThat(advance(250)).isEmpty();
+        assertThat(advance(299)).isEmpty();
+        assertThat(advance(300)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesEachItemOnlyOnce() {
+        wheel.schedule("a", 150);
+        wheel.schedule("b", 150);
+
+        assertThat(advance(1_000)).containsExactlyInAnyOrder("a", "b");
+        assertThat(advance(5_000)).isEmpty();
+    }
+
+    @Test
+    void rejectsDeadlinesAlreadyPast() {
+        advance(1_000);
+
+        assertThat(wheel.schedule("late", 999)).isFalse();
+        assertThat(wheel.schedule("now", 1_000)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void cascadesDeadlinesBeyondTheFirstLevel() {
+        // Primeiro nível alcança 800 ms; 5 s e 70 s vão para níveis superiores
+        wheel.schedule("near", 500);
+        wheel.schedule("far", 5_050);
+        wheel.schedule("farther", 70_000);
+        assertThat(wheel.size()).isEqualTo(3);
+
+        assertThat(advance(600)).containsExactly("near");
+        assertThat(advance(5_000)).isEmpty();
+        assertThat(advance(5_100)).containsExactly("far");
+        assertThat(advance(69_999)).isEmpty();
+        assertThat(advance(70_100)).containsExactly("farther");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void largeJumpFiresEverythingDue() {
+        for (int i = 1; i <= 50; i++) {
+            wheel.schedule("item-" + i, i * 1_000L);
+        }
+
+        assertThat(advance(25_000)).hasSize(24);
+        assertThat(advance(1_000_000)).hasSize(26);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new TimingWheel<>(0, SIZE, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimingWheel<>(TICK, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<String> advance(long nowMs) {
+        List<String> fired = new ArrayList<>();
+        wheel.advance(nowMs, fired::add);
+        return fired;
+    }
+}